@@ -28,6 +28,10 @@ final class BookMenu extends EntityMenu {
      * Variable para almacenar aparte las opciones de submenús
      */
     private final String searchMenu;
+    /**
+     * Variable para almacenar aparte las opciones de búsqueda, con la de relevancia
+     */
+    private final String rankedMenu;
     /**
      * Lista con fragmentos de texto según el parámetro usado en la consulta
      */
@@ -75,9 +79,21 @@ final class BookMenu extends EntityMenu {
                 rb.getString("program-book-properties-2"),
                 rb.getString("program-book-properties-3"),
                 rb.getString("program-general-exit-order"));
+        rankedMenu = String.format("\n\t(1) " + rb.getString("program-general-order-election") +
+                                   "\n\t(2) " + rb.getString("program-general-order-election") +
+                                   "\n\t(3) " + rb.getString("program-general-order-election") +
+                                   "\n\t(4) %s" +
+                                   "\n\t(0) %s",
+                rb.getString("program-book-properties-1"),
+                rb.getString("program-book-properties-2"),
+                rb.getString("program-book-properties-3"),
+                rb.getString("program-book-ranked-option"),
+                rb.getString("program-general-exit-order"));
         searchVar = new String[]{rb.getString("program-book-properties-1"),
-                String.format(rb.getString("program-general-fragment"), rb.getString("program-book-properties-2")),
-                String.format(rb.getString("program-general-fragment"), rb.getString("program-book-properties-3"))};
+                String.format(rb.getString("program-general-fuzzy"),
+                        String.format(rb.getString("program-general-fragment"), rb.getString("program-book-properties-2"))),
+                String.format(rb.getString("program-general-fuzzy"),
+                        String.format(rb.getString("program-general-fragment"), rb.getString("program-book-properties-3")))};
     }
 
     /**
@@ -134,6 +150,11 @@ final class BookMenu extends EntityMenu {
                         count = deleteBook(scan, nBook, idBook);
                         nBook = count[0];
                         idBook = count[1];
+                        count = LibDBBook.getInstance().countDB(currentUser, rb);
+                        if (count != null) {
+                            nBook = count[0];
+                            idBook = count[1];
+                        }
                     }
                     break;
                 case 0:
@@ -180,9 +201,8 @@ final class BookMenu extends EntityMenu {
             }
 
             try {
-                LibDBBook.getInstance().addDb(currentUser, new Book(idBook + 1, title, author), rb);
+                idBook = LibDBBook.getInstance().addDb(currentUser, new Book(0, title, author), rb);
                 nBook++;
-                idBook++;
             } catch (RuntimeException re) {
                 System.err.printf("  %s: %s\n", rb.getString("program-error-database"), re.getMessage());
             }
@@ -203,7 +223,6 @@ final class BookMenu extends EntityMenu {
     private void listBooks(Scanner scan) {
         boolean isValid = false;
         int opt;
-        List<Book> arrayBooks;
 
         System.out.printf("    " + rb.getString("program-general-list") + "\n",
                 rb.getString("program-properties-field-1-plural"));
@@ -214,27 +233,12 @@ final class BookMenu extends EntityMenu {
 
             switch (opt) {
                 case 1:
-                    arrayBooks = LibDBBook.getInstance().searchDB(currentUser, rb);
-                    System.out.printf(rb.getString("program-general-order-selection") + "...\n",
-                            rb.getString("program-book-properties-1"));
-                    arrayBooks.stream().sorted(Book::compareTo)
-                            .forEach(book -> System.out.println(entityToString(book)));
-                    isValid = true;
-                    break;
                 case 2:
-                    arrayBooks = LibDBBook.getInstance().searchDB(currentUser, rb);
-                    System.out.printf(rb.getString("program-general-order-selection") + "...\n",
-                            rb.getString("program-book-properties-2"));
-                    arrayBooks.stream().sorted(Comparator.comparing(Book::getTitle).thenComparingInt(Book::getID))
-                            .forEach(book -> System.out.println(entityToString(book)));
-                    isValid = true;
-                    break;
                 case 3:
-                    arrayBooks = LibDBBook.getInstance().searchDB(currentUser, rb);
                     System.out.printf(rb.getString("program-general-order-selection") + "...\n",
-                            rb.getString("program-book-properties-3"));
-                    arrayBooks.stream().sorted(Comparator.comparing(Book::getAuthor).thenComparing(Book::getTitle))
-                            .forEach(book -> System.out.println(entityToString(book)));
+                            rb.getString("program-book-properties-" + opt));
+                    printPages(scan, currentUser, LibDBBook.getInstance(), opt, false,
+                            Integer.parseInt(configProps.getProperty("database-page-size")), book -> entityToString(book));
                     isValid = true;
                     break;
                 case 0:
@@ -264,11 +268,17 @@ final class BookMenu extends EntityMenu {
             System.out.printf("    " + rb.getString("program-general-search") + "\n",
                     rb.getString("program-properties-field-1-plural"));
             do {
-                System.out.printf("\n  %s -%s\n", rb.getString("program-general-criteria"), searchMenu);
+                System.out.printf("\n  %s -%s\n", rb.getString("program-general-criteria"), rankedMenu);
 
                 opt = checkOptionInput(scan);
 
-                Object o = checkCase(scan, opt);
+                Object o;
+                if (opt == 4) {
+                    System.out.printf("%s %s -\n", rb.getString("program-general-intro"), rb.getString("program-book-ranked-intro"));
+                    o = scan.nextLine();
+                } else {
+                    o = checkCase(scan, opt);
+                }
                 if (o instanceof String) {
                     fragString = (String) o;
                     isValid = true;
@@ -285,8 +295,17 @@ final class BookMenu extends EntityMenu {
                 if (opt == 1) {
                     Book book = LibDBBook.getInstance().searchTB(currentUser, ID, rb);
                     System.out.println(entityToString(book));
+                } else if (opt == 4) {
+                    List<Book> books = LibDBBook.getInstance().searchRankedTB(currentUser, fragString, rb);
+                    if (books.isEmpty()) {
+                        System.err.printf("  %s\n", rb.getString("dao-book-error-search-1"));
+                    }
+                    books.forEach(book -> System.out.println(entityToString(book)));
                 } else {
                     List<Book> books = LibDBBook.getInstance().searchTB(currentUser, opt, fragString, rb);
+                    if (books.isEmpty()) {
+                        System.err.printf("  %s\n", rb.getString("dao-book-error-search-1"));
+                    }
                     books.forEach(book -> System.out.println(entityToString(book)));
                 }
             } catch (RuntimeException re) {
@@ -337,35 +356,38 @@ final class BookMenu extends EntityMenu {
 
             try {
                 if (opt == 1) {
-                    idBook = LibDBBook.getInstance().deleteDB(currentUser, ID, rb);
+                    LibDBBook.getInstance().deleteDB(currentUser, ID, rb);
                     nBook--;
                 } else {
                     List<Book> books = LibDBBook.getInstance().searchTB(currentUser, opt, fragString, rb);
-                    Set<Integer> idbooks = books.stream().map(Book::getID).collect(Collectors.toSet());
-                    books.stream().sorted(Book::compareTo)
-                            .forEach(book -> System.out.println(entityToString(book)));
-                    do {
-                        System.out.printf(rb.getString("program-general-enter") + "\n(%s) -\n",
-                                rb.getString("program-properties-field-1-singular").toLowerCase(),
-                                rb.getString("program-general-cancel"));
-                        try {
-                            ID = scan.nextInt();
-                            if (ID == -1) {
-                                System.out.printf("  %s, %s...\n", rb.getString("program-return-2"),
-                                        rb.getString("program-return-1").toLowerCase());
-                                return new int[]{nBook, idBook};
-                            } else if (!idbooks.add(ID)) {
-                                idBook = LibDBBook.getInstance().deleteDB(currentUser, ID, rb);
-                                nBook--;
-                                isValid = false;
-                            } else {
-                                System.err.printf("  %s\n", rb.getString("program-error-id"));
+                    if (books.isEmpty()) {
+                        System.err.printf("  %s\n", rb.getString("dao-book-error-search-1"));
+                    } else {
+                        Set<Integer> idbooks = books.stream().map(Book::getID).collect(Collectors.toSet());
+                        books.forEach(book -> System.out.println(entityToString(book)));
+                        do {
+                            System.out.printf(rb.getString("program-general-enter") + "\n(%s) -\n",
+                                    rb.getString("program-properties-field-1-singular").toLowerCase(),
+                                    rb.getString("program-general-cancel"));
+                            try {
+                                ID = scan.nextInt();
+                                if (ID == -1) {
+                                    System.out.printf("  %s, %s...\n", rb.getString("program-return-2"),
+                                            rb.getString("program-return-1").toLowerCase());
+                                    return new int[]{nBook, idBook};
+                                } else if (!idbooks.add(ID)) {
+                                    LibDBBook.getInstance().deleteDB(currentUser, ID, rb);
+                                    nBook--;
+                                    isValid = false;
+                                } else {
+                                    System.err.printf("  %s\n", rb.getString("program-error-id"));
+                                }
+                            } catch (InputMismatchException ime) {
+                                System.err.printf("  %s\n", rb.getString("program-error-entry"));
                             }
-                        } catch (InputMismatchException ime) {
-                            System.err.printf("  %s\n", rb.getString("program-error-entry"));
-                        }
-                        scan.nextLine();
-                    } while (isValid);
+                            scan.nextLine();
+                        } while (isValid);
+                    }
                 }
             } catch (RuntimeException re) {
                 System.err.println(re.getMessage());
@@ -397,7 +419,8 @@ final class BookMenu extends EntityMenu {
             case 2:
             case 3:
                 System.out.printf("%s %s -\n", rb.getString("program-general-intro"), searchVar[opt - 1]);
-                obj = scan.nextLine();
+                obj = completeString(scan, scan.nextLine(),
+                        prefix -> LibDBBook.getInstance().completeTB(currentUser, opt, prefix, rb));
                 break;
             case 0:
                 System.out.printf("  %s...\n", rb.getString("program-return-1"));
@@ -4,9 +4,13 @@
 package manager;
 
 import sql.DatabaseBuilder;
+import sql.caches.NegativeCache;
+import sql.caches.TinyLfuCache;
 import sql.reservoirs.LibDBBook;
 import sql.reservoirs.LibDBLoan;
 import sql.reservoirs.LibDBMember;
+import sql.reservoirs.LibDBStats;
+import sql.reservoirs.Replica;
 import sql.users.UserDerby;
 import tables.User;
 
@@ -202,26 +206,29 @@ public final class LibMenu {
         boolean checkMenu = true;
         int optionMenu;
         int[] count;
+        int[][] counts;
 
         EntityMenu lMenu = new BookMenu(currentUser, configProps, rb);
         EntityMenu sMenu = new MemberMenu(currentUser, configProps, rb);
         EntityMenu pMenu = new LoanMenu(currentUser, configProps, rb);
 
+        Thread indexLoader = new Thread(() -> {
+            Replica.getInstance().sync(currentUser);
+            LibDBBook.getInstance().loadIndex(currentUser, rb);
+            LibDBMember.getInstance().loadIndex(currentUser, rb);
+        });
+        indexLoader.setDaemon(true);
+        indexLoader.start();
+
         do {
-            count = LibDBBook.getInstance().countDB(currentUser, rb);
-            if (count != null) {
-                nBooks = count[0];
-                idBooks = count[1];
-            }
-            count = LibDBMember.getInstance().countDB(currentUser, rb);
-            if (count != null) {
-                nMembers = count[0];
-                idMembers = count[1];
-            }
-            count = LibDBLoan.getInstance().countDB(currentUser, rb);
-            if (count != null) {
-                nLoans = count[0];
-                idLoans = count[1];
+            counts = LibDBStats.getInstance().countDB(currentUser, rb);
+            if (counts != null) {
+                nBooks = counts[0][0];
+                idBooks = counts[0][1];
+                nMembers = counts[1][0];
+                idMembers = counts[1][1];
+                nLoans = counts[2][0];
+                idLoans = counts[2][1];
             }
             System.out.printf("\n" + rb.getString("program-intro-showinfo") + "\n", nBooks, nMembers, nLoans);
 
@@ -254,6 +261,7 @@ public final class LibMenu {
                     }
                     break;
                 case 0:
+                    printCacheStats();
                     System.out.printf("%s...\n", rb.getString("program-exit-1"));
                     checkMenu = false;
                     break;
@@ -263,4 +271,29 @@ public final class LibMenu {
         } while (checkMenu);
     }
 
+    /**
+     * Método para mostrar las estadísticas de las cachés de libros,
+     * socios y usuarios por ID, de búsquedas y de búsquedas vacías
+     * durante la sesión
+     */
+    private static void printCacheStats() {
+        TinyLfuCache<?, ?>[] caches = {LibDBBook.getInstance().getCache(), LibDBMember.getInstance().getCache(),
+                UserDerby.getInstance().getCache(), LibDBBook.getInstance().getResults(),
+                LibDBMember.getInstance().getResults(), LibDBLoan.getInstance().getResults()};
+        String[] names = {"1", "2", "4", "1", "2", "3"};
+        for (int i = 0; i < caches.length; i++) {
+            String name = rb.getString("program-properties-field-" + names[i] + "-plural");
+            System.out.printf("  " + rb.getString("program-cache-stats") + "\n",
+                    i < 3 ? name : String.format(rb.getString("program-cache-results"), name),
+                    caches[i].getHits(), caches[i].getMisses(), caches[i].getEvictions(), caches[i].getExpirations(),
+                    100 * caches[i].getHitRate());
+        }
+        NegativeCache<?>[] notFound = {LibDBBook.getInstance().getNotFound(), LibDBMember.getInstance().getNotFound(),
+                UserDerby.getInstance().getNotFound()};
+        for (int i = 0; i < notFound.length; i++) {
+            System.out.printf("  " + rb.getString("program-cache-negative") + "\n",
+                    rb.getString("program-properties-field-" + names[i] + "-plural").toLowerCase(), notFound[i].getHits());
+        }
+    }
+
 }
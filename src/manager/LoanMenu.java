@@ -14,6 +14,7 @@ import tables.User;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 
 import static utils.Utils.*;
@@ -181,6 +182,11 @@ final class LoanMenu extends EntityMenu {
                         count = deleteLoan(scan, nLoan, idLoan);
                         nLoan = count[0];
                         idLoan = count[1];
+                        count = LibDBLoan.getInstance().countDB(currentUser, rb);
+                        if (count != null) {
+                            nLoan = count[0];
+                            idLoan = count[1];
+                        }
                     }
                     break;
                 case 0:
@@ -225,7 +231,8 @@ final class LoanMenu extends EntityMenu {
 
                     opt = checkOptionInput(scan);
 
-                    Object o = checkCaseAdd(scan, opt, searchMemberVar);
+                    Object o = checkCaseAdd(scan, opt, searchMemberVar,
+                            (field, prefix) -> LibDBMember.getInstance().completeTB(currentUser, field, prefix, rb));
                     if (o instanceof String) {
                         fragString = (String) o;
                         isValid = true;
@@ -243,9 +250,13 @@ final class LoanMenu extends EntityMenu {
                         LibDBMember.getInstance().searchTB(currentUser, idMember, rb);
                     } else {
                         List<Member> members = LibDBMember.getInstance().searchTB(currentUser, opt, fragString, rb);
+                        if (members.isEmpty()) {
+                            System.err.printf("  %s\n", rb.getString("dao-member-error-search-1"));
+                            isPossible = false;
+                            continue;
+                        }
                         Set<Integer> idsocs = members.stream().map(Member::getID).collect(Collectors.toSet());
-                        members.stream().sorted(Member::compareTo)
-                                .forEach(member -> System.out.println(entityToString(member)));
+                        members.forEach(member -> System.out.println(entityToString(member)));
                         do {
                             System.out.printf(rb.getString("program-general-enter") + "\n(%s) -\n",
                                     rb.getString("program-properties-field-2-singular").toLowerCase(),
@@ -282,7 +293,8 @@ final class LoanMenu extends EntityMenu {
 
                     opt = checkOptionInput(scan);
 
-                    Object o = checkCaseAdd(scan, opt, searchBookVar);
+                    Object o = checkCaseAdd(scan, opt, searchBookVar,
+                            (field, prefix) -> LibDBBook.getInstance().completeTB(currentUser, field, prefix, rb));
                     if (o instanceof String) {
                         fragString = (String) o;
                         isValid = true;
@@ -300,9 +312,13 @@ final class LoanMenu extends EntityMenu {
                         LibDBBook.getInstance().searchTB(currentUser, idBook, rb);
                     } else {
                         List<Book> books = LibDBBook.getInstance().searchTB(currentUser, opt, fragString, rb);
+                        if (books.isEmpty()) {
+                            System.err.printf("  %s\n", rb.getString("dao-book-error-search-1"));
+                            isPossible = false;
+                            continue;
+                        }
                         Set<Integer> idlibs = books.stream().map(Book::getID).collect(Collectors.toSet());
-                        books.stream().sorted(Book::compareTo)
-                                .forEach(book -> System.out.println(entityToString(book)));
+                        books.forEach(book -> System.out.println(entityToString(book)));
                         do {
                             System.out.printf(rb.getString("program-general-enter") + "\n(%s) -\n",
                                     rb.getString("program-properties-field-1-singular").toLowerCase(),
@@ -333,9 +349,8 @@ final class LoanMenu extends EntityMenu {
             } while (!isPossible);
 
             try {
-                LibDBLoan.getInstance().addDb(currentUser, new Loan(idLoan + 1, idMember, idBook), rb);
+                idLoan = LibDBLoan.getInstance().addDb(currentUser, new Loan(0, idMember, idBook), rb);
                 nLoan++;
-                idLoan++;
             } catch (RuntimeException re) {
                 System.err.printf("  %s: %s\n", rb.getString("program-error-database"), re.getMessage());
             }
@@ -356,7 +371,6 @@ final class LoanMenu extends EntityMenu {
     private void listLoans(Scanner scan) {
         boolean isValid = false;
         int opt;
-        List<Loan> arrayLoans;
 
         System.out.printf("    " + rb.getString("program-general-list") + "\n",
                 rb.getString("program-properties-field-3-plural"));
@@ -367,35 +381,14 @@ final class LoanMenu extends EntityMenu {
 
             switch (opt) {
                 case 1:
-                    arrayLoans = loadDataList(scan, currentUser, LibDBLoan.getInstance());
-                    System.out.printf(rb.getString("program-general-order-selection") + "...\n",
-                            rb.getString("program-loan-properties-1"));
-                    arrayLoans.stream().sorted(Loan::compareTo)
-                            .forEach(loan -> System.out.println(entityToString(loan)));
-                    isValid = true;
-                    break;
                 case 2:
-                    arrayLoans = loadDataList(scan, currentUser, LibDBLoan.getInstance());
-                    System.out.printf(rb.getString("program-general-order-selection") + "...\n",
-                            rb.getString("program-loan-properties-2"));
-                    arrayLoans.stream().sorted(Comparator.comparing(Loan::getIdMember))
-                            .forEach(loan -> System.out.println(entityToString(loan)));
-                    isValid = true;
-                    break;
                 case 3:
-                    arrayLoans = loadDataList(scan, currentUser, LibDBLoan.getInstance());
-                    System.out.printf(rb.getString("program-general-order-selection") + "...\n",
-                            rb.getString("program-loan-properties-3"));
-                    arrayLoans.stream().sorted(Comparator.comparing(Loan::getIdBook))
-                            .forEach(loan -> System.out.println(entityToString(loan)));
-                    isValid = true;
-                    break;
                 case 4:
-                    arrayLoans = loadDataList(scan, currentUser, LibDBLoan.getInstance());
+                    boolean details = checkDetails(scan);
                     System.out.printf(rb.getString("program-general-order-selection") + "...\n",
-                            rb.getString("program-loan-properties-4"));
-                    arrayLoans.stream().sorted(Comparator.comparing(Loan::getDateLoan).thenComparing(Loan::getID))
-                            .forEach(loan -> System.out.println(entityToString(loan)));
+                            rb.getString("program-loan-properties-" + opt));
+                    printPages(scan, currentUser, LibDBLoan.getInstance(), opt, details,
+                            Integer.parseInt(configProps.getProperty("database-page-size")), loan -> entityToString(loan));
                     isValid = true;
                     break;
                 case 0:
@@ -498,7 +491,7 @@ final class LoanMenu extends EntityMenu {
 
             try {
                 if (opt == 1) {
-                    idLoan = LibDBLoan.getInstance().deleteDB(currentUser, ID, rb);
+                    LibDBLoan.getInstance().deleteDB(currentUser, ID, rb);
                     nLoan--;
                 } else {
                     List<Loan> loans;
@@ -508,8 +501,7 @@ final class LoanMenu extends EntityMenu {
                         loans = LibDBLoan.getInstance().searchTB(currentUser, date, rb);
                     }
                     Set<Integer> idloans = loans.stream().map(Loan::getID).collect(Collectors.toSet());
-                    loans.stream().sorted(Loan::compareTo)
-                            .forEach(loan -> System.out.println(entityToString(loan)));
+                    loans.forEach(loan -> System.out.println(entityToString(loan)));
                     do {
                         System.out.printf(rb.getString("program-general-enter") + "\n(%s) -\n",
                                 rb.getString("program-properties-field-3-singular").toLowerCase(),
@@ -521,7 +513,7 @@ final class LoanMenu extends EntityMenu {
                                         rb.getString("program-return-1").toLowerCase());
                                 return new int[]{nLoan, idLoan};
                             } else if (!idloans.add(ID)) {
-                                idLoan = LibDBBook.getInstance().deleteDB(currentUser, ID, rb);
+                                LibDBLoan.getInstance().deleteDB(currentUser, ID, rb);
                                 nLoan--;
                                 isValid = false;
                             } else {
@@ -591,12 +583,14 @@ final class LoanMenu extends EntityMenu {
      * Método con la selección para
      * el criterio de búsqueda en las tablas de datos adicionales
      *
-     * @param scan    Entrada de datos por teclado
-     * @param opt     Índice del criterio de búsqueda
-     * @param listVar Lista de nombres de los campos en la tabla
+     * @param scan      Entrada de datos por teclado
+     * @param opt       Índice del criterio de búsqueda
+     * @param listVar   Lista de nombres de los campos en la tabla
+     * @param completer Autocompletado de los campos de texto en la tabla
      * @return Resultado de la lectura de opt
      */
-    private Object checkCaseAdd(Scanner scan, int opt, String[] listVar) {
+    private Object checkCaseAdd(Scanner scan, int opt, String[] listVar,
+                                BiFunction<Integer, String, List<String>> completer) {
         Object obj = null;
 
         switch (opt) {
@@ -607,7 +601,7 @@ final class LoanMenu extends EntityMenu {
             case 2:
             case 3:
                 System.out.printf("%s %s -\n", rb.getString("program-general-intro"), listVar[opt - 1]);
-                obj = scan.nextLine();
+                obj = completeString(scan, scan.nextLine(), prefix -> completer.apply(opt, prefix));
                 break;
             case 0:
                 System.out.printf("  %s...\n", rb.getString("program-return-1"));
@@ -76,8 +76,10 @@ final class MemberMenu extends EntityMenu {
                 rb.getString("program-member-properties-3"),
                 rb.getString("program-general-exit-order"));
         searchVar = new String[]{rb.getString("program-member-properties-1"),
-                String.format(rb.getString("program-general-fragment"), rb.getString("program-member-properties-2")),
-                String.format(rb.getString("program-general-fragment"), rb.getString("program-member-properties-3"))};
+                String.format(rb.getString("program-general-fuzzy"),
+                        String.format(rb.getString("program-general-fragment"), rb.getString("program-member-properties-2"))),
+                String.format(rb.getString("program-general-fuzzy"),
+                        String.format(rb.getString("program-general-fragment"), rb.getString("program-member-properties-3")))};
     }
 
     /**
@@ -134,6 +136,11 @@ final class MemberMenu extends EntityMenu {
                         count = deleteMember(scan, nMember, idMember);
                         nMember = count[0];
                         idMember = count[1];
+                        count = LibDBMember.getInstance().countDB(currentUser, rb);
+                        if (count != null) {
+                            nMember = count[0];
+                            idMember = count[1];
+                        }
                     }
                     break;
                 case 0:
@@ -180,9 +187,8 @@ final class MemberMenu extends EntityMenu {
             }
 
             try {
-                LibDBMember.getInstance().addDb(currentUser, new Member(nMember + 1, name, surname), rb);
+                idMember = LibDBMember.getInstance().addDb(currentUser, new Member(0, name, surname), rb);
                 nMember++;
-                idMember++;
             } catch (RuntimeException re) {
                 System.err.printf("  %s: %s\n", rb.getString("program-error-database"), re.getMessage());
             }
@@ -203,7 +209,6 @@ final class MemberMenu extends EntityMenu {
     private void listMembers(Scanner scan) {
         boolean isValid = false;
         int opt;
-        List<Member> arrayMembers;
 
         System.out.printf("    " + rb.getString("program-general-list") + "\n",
                 rb.getString("program-properties-field-2-plural"));
@@ -214,27 +219,13 @@ final class MemberMenu extends EntityMenu {
 
             switch (opt) {
                 case 1:
-                    arrayMembers = loadDataList(scan, currentUser, LibDBMember.getInstance());
-                    System.out.printf(rb.getString("program-general-order-selection") + "...\n",
-                            rb.getString("program-member-properties-1"));
-                    arrayMembers.stream().sorted(Member::compareTo)
-                            .forEach(member -> System.out.println(entityToString(member)));
-                    isValid = true;
-                    break;
                 case 2:
-                    arrayMembers = loadDataList(scan, currentUser, LibDBMember.getInstance());
-                    System.out.printf(rb.getString("program-general-order-selection") + "...\n",
-                            rb.getString("program-member-properties-2"));
-                    arrayMembers.stream().sorted(Comparator.comparing(Member::getName).thenComparing(Member::getSurname))
-                            .forEach(member -> System.out.println(entityToString(member)));
-                    isValid = true;
-                    break;
                 case 3:
-                    arrayMembers = loadDataList(scan, currentUser, LibDBMember.getInstance());
+                    boolean details = checkDetails(scan);
                     System.out.printf(rb.getString("program-general-order-selection") + "...\n",
-                            rb.getString("program-member-properties-3"));
-                    arrayMembers.stream().sorted(Comparator.comparing(Member::getSurname).thenComparing(Member::getName))
-                            .forEach(member -> System.out.println(entityToString(member)));
+                            rb.getString("program-member-properties-" + opt));
+                    printPages(scan, currentUser, LibDBMember.getInstance(), opt, details,
+                            Integer.parseInt(configProps.getProperty("database-page-size")), member -> entityToString(member));
                     isValid = true;
                     break;
                 case 0:
@@ -287,6 +278,9 @@ final class MemberMenu extends EntityMenu {
                     System.out.println(member);
                 } else {
                     List<Member> members = LibDBMember.getInstance().searchTB(currentUser, opt, fragString, rb);
+                    if (members.isEmpty()) {
+                        System.err.printf("  %s\n", rb.getString("dao-member-error-search-1"));
+                    }
                     members.forEach(member -> System.out.println(entityToString(member)));
                 }
             } catch (RuntimeException re) {
@@ -337,35 +331,38 @@ final class MemberMenu extends EntityMenu {
 
             try {
                 if (opt == 1) {
-                    idMember = LibDBMember.getInstance().deleteDB(currentUser, ID, rb);
+                    LibDBMember.getInstance().deleteDB(currentUser, ID, rb);
                     nMember--;
                 } else {
                     List<Member> members = LibDBMember.getInstance().searchTB(currentUser, opt, fragString, rb);
-                    Set<Integer> idmembers = members.stream().map(Member::getID).collect(Collectors.toSet());
-                    members.stream().sorted(Member::compareTo)
-                            .forEach(member -> System.out.println(entityToString(member)));
-                    do {
-                        System.out.printf(rb.getString("program-general-enter") + "\n(%s) -\n",
-                                rb.getString("program-properties-field-2-singular").toLowerCase(),
-                                rb.getString("program-general-cancel"));
-                        try {
-                            ID = scan.nextInt();
-                            if (ID == -1) {
-                                System.out.printf("  %s, %s...\n", rb.getString("program-return-2"),
-                                        rb.getString("program-return-1").toLowerCase());
-                                return new int[]{nMember, idMember};
-                            } else if (!idmembers.add(ID)) {
-                                idMember = LibDBMember.getInstance().deleteDB(currentUser, ID, rb);
-                                nMember--;
-                                isValid = false;
-                            } else {
-                                System.err.printf("  %s\n", rb.getString("program-error-id"));
+                    if (members.isEmpty()) {
+                        System.err.printf("  %s\n", rb.getString("dao-member-error-search-1"));
+                    } else {
+                        Set<Integer> idmembers = members.stream().map(Member::getID).collect(Collectors.toSet());
+                        members.forEach(member -> System.out.println(entityToString(member)));
+                        do {
+                            System.out.printf(rb.getString("program-general-enter") + "\n(%s) -\n",
+                                    rb.getString("program-properties-field-2-singular").toLowerCase(),
+                                    rb.getString("program-general-cancel"));
+                            try {
+                                ID = scan.nextInt();
+                                if (ID == -1) {
+                                    System.out.printf("  %s, %s...\n", rb.getString("program-return-2"),
+                                            rb.getString("program-return-1").toLowerCase());
+                                    return new int[]{nMember, idMember};
+                                } else if (!idmembers.add(ID)) {
+                                    LibDBMember.getInstance().deleteDB(currentUser, ID, rb);
+                                    nMember--;
+                                    isValid = false;
+                                } else {
+                                    System.err.printf("  %s\n", rb.getString("program-error-id"));
+                                }
+                            } catch (InputMismatchException ime) {
+                                System.err.printf("  %s\n", rb.getString("program-error-entry"));
                             }
-                        } catch (InputMismatchException ime) {
-                            System.err.printf("  %s\n", rb.getString("program-error-entry"));
-                        }
-                        scan.nextLine();
-                    } while (isValid);
+                            scan.nextLine();
+                        } while (isValid);
+                    }
                 }
             } catch (RuntimeException re) {
                 System.err.println(re.getMessage());
@@ -397,7 +394,8 @@ final class MemberMenu extends EntityMenu {
             case 2:
             case 3:
                 System.out.printf("%s %s -\n", rb.getString("program-general-intro"), searchVar[opt - 1]);
-                obj = scan.nextLine();
+                obj = completeString(scan, scan.nextLine(),
+                        prefix -> LibDBMember.getInstance().completeTB(currentUser, opt, prefix, rb));
                 break;
             case 0:
                 System.out.printf("  %s...\n", rb.getString("program-return-1"));
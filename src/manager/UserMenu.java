@@ -139,6 +139,11 @@ final class UserMenu extends EntityMenu {
                         count = deleteUser(scan, nUser, idUser);
                         nUser = count[0];
                         idUser = count[1];
+                        count = UserDerby.getInstance().countDB(currentUser, rb);
+                        if (count != null) {
+                            nUser = count[0];
+                            idUser = count[1];
+                        }
                     }
                     break;
                 case 0:
@@ -185,9 +190,8 @@ final class UserMenu extends EntityMenu {
             }
 
             try {
-                UserDerby.getInstance().addDb(currentUser, new User(idUser + 1, name, password), rb);
+                idUser = UserDerby.getInstance().addDb(currentUser, new User(0, name, password), rb);
                 nUser++;
-                idUser++;
             } catch (RuntimeException re) {
                 System.err.printf("  %s: %s\n", rb.getString("program-error-database"), re.getMessage());
             }
@@ -208,7 +212,6 @@ final class UserMenu extends EntityMenu {
     private void listUsers(Scanner scan) {
         boolean isValid = false;
         int opt;
-        List<User> arrayUsers;
 
         System.out.printf("    " + rb.getString("program-general-list") + "\n",
                 rb.getString("program-properties-field-4-plural"));
@@ -219,19 +222,11 @@ final class UserMenu extends EntityMenu {
 
             switch (opt) {
                 case 1:
-                    arrayUsers = UserDerby.getInstance().searchDB(currentUser, rb);
-                    System.out.printf(rb.getString("program-general-order-selection") + "...\n",
-                            rb.getString("program-user-properties-1"));
-                    arrayUsers.stream().sorted(User::compareTo)
-                            .forEach(user -> System.out.println(entityToString(user)));
-                    isValid = true;
-                    break;
                 case 2:
-                    arrayUsers = UserDerby.getInstance().searchDB(currentUser, rb);
                     System.out.printf(rb.getString("program-general-order-selection") + "...\n",
-                            rb.getString("program-user-properties-2"));
-                    arrayUsers.stream().sorted(Comparator.comparing(User::getName).thenComparing(User::getID))
-                            .forEach(user -> System.out.println(entityToString(user)));
+                            rb.getString("program-user-properties-" + opt));
+                    printPages(scan, currentUser, UserDerby.getInstance(), opt, false,
+                            Integer.parseInt(configProps.getProperty("database-page-size")), user -> entityToString(user));
                     isValid = true;
                     break;
                 case 0:
@@ -284,6 +279,9 @@ final class UserMenu extends EntityMenu {
                     System.out.println(entityToString(user));
                 } else {
                     List<User> users = UserDerby.getInstance().searchUser(currentUser, fragString, rb);
+                    if (users.isEmpty()) {
+                        System.err.printf("  %s\n", rb.getString("dao-user-error-search-1"));
+                    }
                     users.forEach(user -> System.out.println(entityToString(user)));
                 }
             } catch (RuntimeException re) {
@@ -334,35 +332,38 @@ final class UserMenu extends EntityMenu {
 
             try {
                 if (opt == 1) {
-                    idUser = UserDerby.getInstance().deleteDB(currentUser, ID, rb);
+                    UserDerby.getInstance().deleteDB(currentUser, ID, rb);
                     nUser--;
                 } else {
                     List<User> users = UserDerby.getInstance().searchUser(currentUser, fragString, rb);
-                    Set<Integer> idusers = users.stream().map(User::getID).collect(Collectors.toSet());
-                    users.stream().sorted(User::compareTo)
-                            .forEach(user -> System.out.println(entityToString(user)));
-                    do {
-                        System.out.printf(rb.getString("program-general-enter") + "\n(%s) -\n",
-                                rb.getString("program-properties-field-4-singular").toLowerCase(),
-                                rb.getString("program-general-cancel"));
-                        try {
-                            ID = scan.nextInt();
-                            if (ID == -1) {
-                                System.out.printf("  %s, %s...\n", rb.getString("program-return-2"),
-                                        rb.getString("program-return-1").toLowerCase());
-                                return new int[]{nUser, idUser};
-                            } else if (!idusers.add(ID)) {
-                                idUser = UserDerby.getInstance().deleteDB(currentUser, ID, rb);
-                                nUser--;
-                                isValid = false;
-                            } else {
-                                System.err.printf("  %s\n", rb.getString("program-error-id"));
+                    if (users.isEmpty()) {
+                        System.err.printf("  %s\n", rb.getString("dao-user-error-search-1"));
+                    } else {
+                        Set<Integer> idusers = users.stream().map(User::getID).collect(Collectors.toSet());
+                        users.forEach(user -> System.out.println(entityToString(user)));
+                        do {
+                            System.out.printf(rb.getString("program-general-enter") + "\n(%s) -\n",
+                                    rb.getString("program-properties-field-4-singular").toLowerCase(),
+                                    rb.getString("program-general-cancel"));
+                            try {
+                                ID = scan.nextInt();
+                                if (ID == -1) {
+                                    System.out.printf("  %s, %s...\n", rb.getString("program-return-2"),
+                                            rb.getString("program-return-1").toLowerCase());
+                                    return new int[]{nUser, idUser};
+                                } else if (!idusers.add(ID)) {
+                                    UserDerby.getInstance().deleteDB(currentUser, ID, rb);
+                                    nUser--;
+                                    isValid = false;
+                                } else {
+                                    System.err.printf("  %s\n", rb.getString("program-error-id"));
+                                }
+                            } catch (InputMismatchException ime) {
+                                System.err.printf("  %s\n", rb.getString("program-error-entry"));
                             }
-                        } catch (InputMismatchException ime) {
-                            System.err.printf("  %s\n", rb.getString("program-error-entry"));
-                        }
-                        scan.nextLine();
-                    } while (isValid);
+                            scan.nextLine();
+                        } while (isValid);
+                    }
                 }
             } catch (RuntimeException re) {
                 System.err.println(re.getMessage());
@@ -0,0 +1,946 @@
+package sql;
+
+import tables.User;
+import utils.Utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.ResourceBundle;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Clase de gestión de conexiones a la base de datos,
+ * compartidas por todas las clases DAO; uso del patrón singleton
+ * <p>
+ * Mantiene un conjunto acotado de conexiones abiertas por cada usuario
+ * de la base de datos, de forma que cada acción de los menús no tenga
+ * que volver a negociar y autenticar una conexión con Derby.
+ * Las conexiones entregadas son envoltorios cuyo método close()
+ * devuelve la conexión física al conjunto en lugar de cerrarla.
+ * Cada conexión física guarda además las sentencias preparadas
+ * que se le piden, de modo que un mismo texto SQL solo se prepara
+ * una vez en el servidor por conexión
+ *
+ * @author JuanGS
+ * @version 1.0
+ * @since 10-2026
+ */
+public final class ConnectionPool {
+    /**
+     * Instancia única de la clase
+     */
+    private static final ConnectionPool instance = new ConnectionPool();
+    /**
+     * Lista de propiedades del programa
+     */
+    private final Properties configProps = Utils.readProperties();
+    /**
+     * URL de la base de datos utilizada por este código,
+     * según el modo de conexión configurado
+     */
+    private volatile String url = DatabaseBuilder.databaseUrl(configProps);
+    /**
+     * Número máximo de conexiones abiertas por usuario
+     */
+    private final int maxSize = Integer.parseInt(configProps.getProperty("database-pool-maxsize", "4"));
+    /**
+     * Tiempo máximo, en milisegundos, que una conexión puede quedar ociosa
+     * antes de cerrarse
+     */
+    private final long idleTimeout = Long.parseLong(configProps.getProperty("database-pool-idletimeout", "300000"));
+    /**
+     * Tiempo ocioso, en milisegundos, a partir del cual una conexión
+     * se valida antes de entregarse de nuevo
+     */
+    private final long validationInterval = Long.parseLong(configProps.getProperty("database-pool-validation", "5000"));
+    /**
+     * Tiempo máximo, en milisegundos, de espera por una conexión libre
+     */
+    private final long waitTimeout = Long.parseLong(configProps.getProperty("database-pool-waittimeout", "10000"));
+    /**
+     * Número máximo de sentencias preparadas cacheadas por conexión
+     */
+    private final int statementCacheSize = Integer.parseInt(configProps.getProperty("database-pool-statementcache", "32"));
+    /**
+     * Conjuntos de conexiones, indexados por nombre de usuario
+     */
+    private final Map<String, UserPool> pools = new ConcurrentHashMap<>();
+    /**
+     * Tarea periódica de cierre de conexiones ociosas
+     */
+    private final ScheduledExecutorService reaper = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "gabi-pool-reaper");
+        t.setDaemon(true);
+        return t;
+    });
+    /**
+     * Conexiones físicas abiertas desde el inicio del programa
+     */
+    private final AtomicLong created = new AtomicLong();
+    /**
+     * Conexiones entregadas a las clases DAO
+     */
+    private final AtomicLong borrowed = new AtomicLong();
+    /**
+     * Entregas servidas con una conexión ya abierta
+     */
+    private final AtomicLong reused = new AtomicLong();
+    /**
+     * Conexiones descartadas al fallar su validación
+     */
+    private final AtomicLong invalid = new AtomicLong();
+    /**
+     * Conexiones cerradas por exceder el tiempo ocioso
+     */
+    private final AtomicLong expired = new AtomicLong();
+    /**
+     * Esperas por conexión que agotaron el tiempo máximo
+     */
+    private final AtomicLong timeouts = new AtomicLong();
+    /**
+     * Contadores de aciertos y fallos de la caché de sentencias,
+     * indexados por texto SQL
+     */
+    private final Map<String, AtomicLong[]> statementStats = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor privado de la clase
+     */
+    private ConnectionPool() {
+        long period = Math.max(1000, idleTimeout / 2);
+        reaper.scheduleAtFixedRate(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "gabi-pool-shutdown"));
+    }
+
+    /**
+     * Método del patrón singleton para obtener la instancia única de clase
+     *
+     * @return Instancia de clase
+     */
+    public static ConnectionPool getInstance() {
+        return instance;
+    }
+
+    /**
+     * Método para obtener una conexión del conjunto
+     * asociado al usuario indicado
+     *
+     * @param currentUser Objeto de usuario con sus datos
+     *                    de acceso a la base de datos
+     * @return Conexión lista para su uso; debe cerrarse
+     * para devolverla al conjunto
+     * @throws SQLException Si no se puede abrir una conexión
+     *                      o se agota el tiempo de espera
+     */
+    public Connection getConnection(User currentUser) throws SQLException {
+        return getConnection(currentUser.getName(), currentUser.getPassword());
+    }
+
+    /**
+     * Método para obtener una conexión del conjunto
+     * asociado al usuario indicado
+     *
+     * @param name     Nombre del usuario
+     * @param password Contraseña del usuario
+     * @return Conexión lista para su uso; debe cerrarse
+     * para devolverla al conjunto
+     * @throws SQLException Si no se puede abrir una conexión
+     *                      o se agota el tiempo de espera
+     */
+    public Connection getConnection(String name, String password) throws SQLException {
+        UserPool pool = pools.compute(name, (key, old) -> {
+            if (old != null && old.password.equals(password)) {
+                return old;
+            }
+            if (old != null) {
+                old.close();
+            }
+            return new UserPool(name, password);
+        });
+        PooledConnection pc = pool.borrow();
+        borrowed.incrementAndGet();
+        return pc.lease();
+    }
+
+    /**
+     * Método para cerrar todas las conexiones de un usuario,
+     * por ejemplo tras darlo de baja en la base de datos
+     *
+     * @param name Nombre del usuario
+     */
+    public void evict(String name) {
+        UserPool pool = pools.remove(name);
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    /**
+     * Método para cerrar todas las conexiones abiertas del programa,
+     * deteniendo la base de datos si corre en modo embebido
+     */
+    public void shutdown() {
+        reaper.shutdownNow();
+        for (String name : pools.keySet()) {
+            evict(name);
+        }
+        if (created.get() > 0) {
+            DatabaseBuilder.shutdownEmbedded(configProps);
+        }
+    }
+
+    /**
+     * Método para cambiar la URL de la base de datos en caliente,
+     * cerrando todas las conexiones abiertas con la anterior;
+     * reservado a las herramientas de medición del paquete
+     *
+     * @param newUrl Nueva URL de conexión con la base de datos
+     */
+    void switchUrl(String newUrl) {
+        for (String name : pools.keySet()) {
+            evict(name);
+        }
+        url = newUrl;
+    }
+
+    /**
+     * Método para recopilar las estadísticas de uso del conjunto de conexiones
+     *
+     * @return Objeto con las estadísticas actuales
+     */
+    public Statistics getStatistics() {
+        int active = 0;
+        int idle = 0;
+        for (UserPool pool : pools.values()) {
+            synchronized (pool) {
+                active += pool.active;
+                idle += pool.idle.size();
+            }
+        }
+        return new Statistics(pools.size(), active, idle, created.get(), borrowed.get(),
+                reused.get(), invalid.get(), expired.get(), timeouts.get());
+    }
+
+    /**
+     * Método para recopilar los aciertos y fallos de la caché de sentencias
+     * preparadas de todas las conexiones
+     *
+     * @return Mapa ordenado por texto SQL con los pares {aciertos, fallos}
+     */
+    public Map<String, long[]> getStatementStatistics() {
+        Map<String, long[]> stats = new TreeMap<>();
+        statementStats.forEach((sql, counters) -> stats.put(sql, new long[]{counters[0].get(), counters[1].get()}));
+        return stats;
+    }
+
+    /**
+     * Método de la tarea periódica para cerrar las conexiones
+     * que han superado el tiempo ocioso máximo
+     */
+    private void evictIdle() {
+        long now = System.currentTimeMillis();
+        for (UserPool pool : pools.values()) {
+            pool.evictIdle(now);
+        }
+    }
+
+    /**
+     * Método para obtener un texto localizado del programa
+     *
+     * @param key Clave del texto
+     * @return Texto localizado
+     */
+    private static String text(String key) {
+        return ResourceBundle.getBundle("statements").getString(key);
+    }
+
+    /**
+     * Conjunto acotado de conexiones de un usuario concreto
+     */
+    private final class UserPool {
+        /**
+         * Nombre del usuario
+         */
+        private final String name;
+        /**
+         * Contraseña del usuario
+         */
+        private final String password;
+        /**
+         * Conexiones libres, la más reciente al principio
+         */
+        private final Deque<PooledConnection> idle = new ArrayDeque<>();
+        /**
+         * Número de conexiones prestadas en este momento
+         */
+        private int active;
+        /**
+         * Indicador de conjunto cerrado
+         */
+        private boolean closed;
+
+        /**
+         * Constructor del conjunto de conexiones
+         *
+         * @param name     Nombre del usuario
+         * @param password Contraseña del usuario
+         */
+        private UserPool(String name, String password) {
+            this.name = name;
+            this.password = password;
+        }
+
+        /**
+         * Método para tomar una conexión libre, validándola si lleva
+         * tiempo sin usarse, o abrir una nueva si hay hueco
+         *
+         * @return Conexión física envuelta
+         * @throws SQLException Si no se puede abrir la conexión
+         *                      o se agota el tiempo de espera
+         */
+        private PooledConnection borrow() throws SQLException {
+            long deadline = System.currentTimeMillis() + waitTimeout;
+            while (true) {
+                PooledConnection pc;
+                synchronized (this) {
+                    while (idle.isEmpty() && active >= maxSize && !closed) {
+                        long wait = deadline - System.currentTimeMillis();
+                        if (wait <= 0) {
+                            timeouts.incrementAndGet();
+                            throw new SQLException(text("pool-error-timeout"));
+                        }
+                        try {
+                            wait(wait);
+                        } catch (InterruptedException ie) {
+                            Thread.currentThread().interrupt();
+                            throw new SQLException(text("pool-error-timeout"));
+                        }
+                    }
+                    if (closed) {
+                        throw new SQLException(text("pool-error-closed"));
+                    }
+                    active++;
+                    pc = idle.pollFirst();
+                }
+
+                if (pc == null) {
+                    try {
+                        pc = new PooledConnection(this, DriverManager.getConnection(url, name, password));
+                        created.incrementAndGet();
+                        return pc;
+                    } catch (SQLException sqle) {
+                        release(null);
+                        throw sqle;
+                    }
+                }
+                if (System.currentTimeMillis() - pc.lastUsed < validationInterval || pc.validate()) {
+                    reused.incrementAndGet();
+                    return pc;
+                }
+                invalid.incrementAndGet();
+                pc.closePhysical();
+                release(null);
+            }
+        }
+
+        /**
+         * Método para devolver una conexión al conjunto; una conexión
+         * nula solo libera el hueco ocupado
+         *
+         * @param pc Conexión devuelta, o nula si se ha descartado
+         */
+        private void release(PooledConnection pc) {
+            boolean discard;
+            synchronized (this) {
+                active--;
+                discard = closed && pc != null;
+                if (pc != null && !closed) {
+                    pc.lastUsed = System.currentTimeMillis();
+                    idle.addFirst(pc);
+                }
+                notifyAll();
+            }
+            if (discard) {
+                pc.closePhysical();
+            }
+        }
+
+        /**
+         * Método para cerrar las conexiones libres que superan
+         * el tiempo ocioso máximo
+         *
+         * @param now Instante actual en milisegundos
+         */
+        private void evictIdle(long now) {
+            Deque<PooledConnection> stale = new ArrayDeque<>();
+            synchronized (this) {
+                Iterator<PooledConnection> it = idle.descendingIterator();
+                while (it.hasNext()) {
+                    PooledConnection pc = it.next();
+                    if (now - pc.lastUsed < idleTimeout) {
+                        break;
+                    }
+                    it.remove();
+                    stale.add(pc);
+                }
+            }
+            for (PooledConnection pc : stale) {
+                expired.incrementAndGet();
+                pc.closePhysical();
+            }
+        }
+
+        /**
+         * Método para cerrar el conjunto y todas sus conexiones libres;
+         * las prestadas se cierran al devolverse
+         */
+        private void close() {
+            Deque<PooledConnection> open;
+            synchronized (this) {
+                closed = true;
+                open = new ArrayDeque<>(idle);
+                idle.clear();
+                notifyAll();
+            }
+            for (PooledConnection pc : open) {
+                pc.closePhysical();
+            }
+        }
+    }
+
+    /**
+     * Conexión física gestionada por el conjunto, junto con
+     * su caché de sentencias preparadas
+     */
+    private final class PooledConnection {
+        /**
+         * Conjunto al que pertenece la conexión
+         */
+        private final UserPool owner;
+        /**
+         * Conexión física con la base de datos
+         */
+        private final Connection physical;
+        /**
+         * Sentencias preparadas de la conexión, indexadas por su texto SQL
+         * y ordenadas de menos a más recientemente usada
+         */
+        private final Map<String, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+        /**
+         * Instante de la última devolución al conjunto
+         */
+        private long lastUsed = System.currentTimeMillis();
+        /**
+         * Indicador de conexión rota, que no debe volver al conjunto
+         */
+        private boolean broken;
+
+        /**
+         * Constructor de la conexión gestionada
+         *
+         * @param owner    Conjunto al que pertenece la conexión
+         * @param physical Conexión física con la base de datos
+         */
+        private PooledConnection(UserPool owner, Connection physical) {
+            this.owner = owner;
+            this.physical = physical;
+        }
+
+        /**
+         * Método para entregar la conexión envuelta, válida
+         * hasta que se llame a su método close()
+         *
+         * @return Envoltorio de la conexión física
+         */
+        private Connection lease() {
+            return (Connection) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new Lease(this));
+        }
+
+        /**
+         * Método para obtener una sentencia preparada desde la caché
+         * de la conexión, preparándola solo la primera vez que se pide.
+         * Si la sentencia cacheada está ya en uso se prepara una
+         * sentencia independiente, que se cierra al usarse
+         *
+         * @param sql  Texto SQL de la sentencia
+         * @param keys Indicador de devolución de claves generadas
+         * @return Envoltorio de la sentencia preparada
+         * @throws SQLException Si la base de datos rechaza la sentencia
+         */
+        private PreparedStatement prepare(String sql, int keys) throws SQLException {
+            AtomicLong[] counters = statementStats.computeIfAbsent(sql, k -> new AtomicLong[]{new AtomicLong(), new AtomicLong()});
+            String key = keys == Statement.RETURN_GENERATED_KEYS ? "#" + sql : sql;
+            CachedStatement cs = statements.get(key);
+            if (cs != null && !cs.inUse) {
+                counters[0].incrementAndGet();
+                return cs.lease();
+            }
+            counters[1].incrementAndGet();
+            PreparedStatement ps = physical.prepareStatement(sql, keys);
+            if (cs != null || statementCacheSize <= 0) {
+                return ps;
+            }
+            cs = new CachedStatement(ps);
+            statements.put(key, cs);
+            if (statements.size() > statementCacheSize) {
+                Iterator<CachedStatement> it = statements.values().iterator();
+                CachedStatement eldest = it.next();
+                it.remove();
+                eldest.evict();
+            }
+            return cs.lease();
+        }
+
+        /**
+         * Método de validación de una conexión libre
+         *
+         * @return Verdadero si la conexión sigue operativa
+         */
+        private boolean validate() {
+            try {
+                return physical.isValid(2);
+            } catch (SQLException sqle) {
+                return false;
+            }
+        }
+
+        /**
+         * Método de devolución al conjunto, restaurando el estado
+         * por defecto de la conexión o descartándola si está rota
+         */
+        private void giveBack() {
+            try {
+                if (!broken && !physical.isClosed()) {
+                    if (!physical.getAutoCommit()) {
+                        physical.rollback();
+                        physical.setAutoCommit(true);
+                    }
+                    physical.clearWarnings();
+                    owner.release(this);
+                    return;
+                }
+            } catch (SQLException sqle) {
+                // Conexión inservible, se descarta
+            }
+            closePhysical();
+            owner.release(null);
+        }
+
+        /**
+         * Método de cierre definitivo de la conexión física
+         * y de sus sentencias cacheadas
+         */
+        private void closePhysical() {
+            for (CachedStatement cs : statements.values()) {
+                cs.evict();
+            }
+            statements.clear();
+            try {
+                physical.close();
+            } catch (SQLException sqle) {
+                // La conexión ya no es utilizable
+            }
+        }
+
+        /**
+         * Método para marcar la conexión como rota si el error
+         * recibido indica la pérdida de la conexión
+         *
+         * @param cause Error lanzado por el controlador
+         */
+        private void checkBroken(Throwable cause) {
+            if (cause instanceof SQLException) {
+                String state = ((SQLException) cause).getSQLState();
+                if (state != null && state.startsWith("08")) {
+                    broken = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Sentencia preparada guardada en la caché de una conexión
+     */
+    private final class CachedStatement {
+        /**
+         * Sentencia preparada física
+         */
+        private final PreparedStatement physical;
+        /**
+         * Indicador de sentencia prestada en este momento
+         */
+        private boolean inUse;
+        /**
+         * Indicador de sentencia expulsada de la caché
+         */
+        private boolean evicted;
+
+        /**
+         * Constructor de la sentencia cacheada
+         *
+         * @param physical Sentencia preparada física
+         */
+        private CachedStatement(PreparedStatement physical) {
+            this.physical = physical;
+        }
+
+        /**
+         * Método para entregar la sentencia envuelta, válida
+         * hasta que se llame a su método close()
+         *
+         * @return Envoltorio de la sentencia preparada
+         */
+        private PreparedStatement lease() {
+            inUse = true;
+            return (PreparedStatement) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, new StatementLease(this));
+        }
+
+        /**
+         * Método de devolución a la caché, cerrando los resultados
+         * abiertos y limpiando los parámetros de la sentencia
+         *
+         * @param results Resultados abiertos durante el préstamo
+         */
+        private void giveBack(List<ResultSet> results) {
+            inUse = false;
+            try {
+                for (ResultSet rs : results) {
+                    rs.close();
+                }
+                if (evicted) {
+                    physical.close();
+                } else {
+                    physical.clearParameters();
+                    physical.clearBatch();
+                    physical.clearWarnings();
+                }
+            } catch (SQLException sqle) {
+                evicted = true;
+                closeQuietly();
+            }
+        }
+
+        /**
+         * Método de expulsión de la caché; la sentencia se cierra
+         * ahora o, si está en uso, al devolverse
+         */
+        private void evict() {
+            evicted = true;
+            if (!inUse) {
+                closeQuietly();
+            }
+        }
+
+        /**
+         * Método de cierre definitivo de la sentencia física
+         */
+        private void closeQuietly() {
+            try {
+                physical.close();
+            } catch (SQLException sqle) {
+                // La sentencia ya no es utilizable
+            }
+        }
+    }
+
+    /**
+     * Manejador del envoltorio de una conexión prestada
+     */
+    private static final class Lease implements InvocationHandler {
+        /**
+         * Conexión gestionada prestada
+         */
+        private final PooledConnection pc;
+        /**
+         * Indicador de préstamo finalizado
+         */
+        private boolean returned;
+
+        /**
+         * Constructor del manejador
+         *
+         * @param pc Conexión gestionada prestada
+         */
+        private Lease(PooledConnection pc) {
+            this.pc = pc;
+        }
+
+        /**
+         * Método de redirección de llamadas hacia la conexión física;
+         * las sentencias preparadas sin opciones de cursor se sirven
+         * desde la caché de la conexión
+         */
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        pc.giveBack();
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || pc.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled" + pc.physical;
+                default:
+            }
+            if (returned) {
+                throw new SQLException(text("pool-error-closed"));
+            }
+            try {
+                if (method.getName().equals("prepareStatement") && (args.length == 1 ||
+                        (args.length == 2 && method.getParameterTypes()[1] == int.class))) {
+                    return pc.prepare((String) args[0], args.length == 1 ? Statement.NO_GENERATED_KEYS : (Integer) args[1]);
+                }
+                return method.invoke(pc.physical, args);
+            } catch (InvocationTargetException ite) {
+                pc.checkBroken(ite.getCause());
+                throw ite.getCause();
+            } catch (SQLException sqle) {
+                pc.checkBroken(sqle);
+                throw sqle;
+            }
+        }
+    }
+
+    /**
+     * Manejador del envoltorio de una sentencia cacheada prestada
+     */
+    private static final class StatementLease implements InvocationHandler {
+        /**
+         * Sentencia cacheada prestada
+         */
+        private final CachedStatement cs;
+        /**
+         * Resultados abiertos durante el préstamo
+         */
+        private final List<ResultSet> results = new ArrayList<>();
+        /**
+         * Indicador de préstamo finalizado
+         */
+        private boolean returned;
+
+        /**
+         * Constructor del manejador
+         *
+         * @param cs Sentencia cacheada prestada
+         */
+        private StatementLease(CachedStatement cs) {
+            this.cs = cs;
+        }
+
+        /**
+         * Método de redirección de llamadas hacia la sentencia física
+         */
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        cs.giveBack(results);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || cs.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Cached" + cs.physical;
+                default:
+            }
+            if (returned) {
+                throw new SQLException(text("pool-error-closed"));
+            }
+            try {
+                Object result = method.invoke(cs.physical, args);
+                if (result instanceof ResultSet) {
+                    results.add((ResultSet) result);
+                }
+                return result;
+            } catch (InvocationTargetException ite) {
+                throw ite.getCause();
+            }
+        }
+    }
+
+    /**
+     * Clase de estadísticas de uso del conjunto de conexiones
+     */
+    public static final class Statistics {
+        /**
+         * Número de usuarios con conjunto de conexiones
+         */
+        private final int users;
+        /**
+         * Conexiones prestadas en este momento
+         */
+        private final int active;
+        /**
+         * Conexiones libres en este momento
+         */
+        private final int idle;
+        /**
+         * Conexiones físicas abiertas desde el inicio
+         */
+        private final long created;
+        /**
+         * Conexiones entregadas desde el inicio
+         */
+        private final long borrowed;
+        /**
+         * Entregas servidas con una conexión ya abierta
+         */
+        private final long reused;
+        /**
+         * Conexiones descartadas al fallar su validación
+         */
+        private final long invalid;
+        /**
+         * Conexiones cerradas por exceder el tiempo ocioso
+         */
+        private final long expired;
+        /**
+         * Esperas que agotaron el tiempo máximo
+         */
+        private final long timeouts;
+
+        /**
+         * Constructor completo de la clase
+         */
+        private Statistics(int users, int active, int idle, long created, long borrowed,
+                           long reused, long invalid, long expired, long timeouts) {
+            this.users = users;
+            this.active = active;
+            this.idle = idle;
+            this.created = created;
+            this.borrowed = borrowed;
+            this.reused = reused;
+            this.invalid = invalid;
+            this.expired = expired;
+            this.timeouts = timeouts;
+        }
+
+        /**
+         * Método getter de la variable users
+         *
+         * @return Número de usuarios con conjunto de conexiones
+         */
+        public int getUsers() {
+            return users;
+        }
+
+        /**
+         * Método getter de la variable active
+         *
+         * @return Conexiones prestadas en este momento
+         */
+        public int getActive() {
+            return active;
+        }
+
+        /**
+         * Método getter de la variable idle
+         *
+         * @return Conexiones libres en este momento
+         */
+        public int getIdle() {
+            return idle;
+        }
+
+        /**
+         * Método getter de la variable created
+         *
+         * @return Conexiones físicas abiertas desde el inicio
+         */
+        public long getCreated() {
+            return created;
+        }
+
+        /**
+         * Método getter de la variable borrowed
+         *
+         * @return Conexiones entregadas desde el inicio
+         */
+        public long getBorrowed() {
+            return borrowed;
+        }
+
+        /**
+         * Método getter de la variable reused
+         *
+         * @return Entregas servidas con una conexión ya abierta
+         */
+        public long getReused() {
+            return reused;
+        }
+
+        /**
+         * Método getter de la variable invalid
+         *
+         * @return Conexiones descartadas al fallar su validación
+         */
+        public long getInvalid() {
+            return invalid;
+        }
+
+        /**
+         * Método getter de la variable expired
+         *
+         * @return Conexiones cerradas por exceder el tiempo ocioso
+         */
+        public long getExpired() {
+            return expired;
+        }
+
+        /**
+         * Método getter de la variable timeouts
+         *
+         * @return Esperas que agotaron el tiempo máximo
+         */
+        public long getTimeouts() {
+            return timeouts;
+        }
+
+        /**
+         * Método sobreescrito de verbalización de las estadísticas
+         *
+         * @return Descripción de las estadísticas
+         */
+        @Override
+        public String toString() {
+            return String.format("users=%d active=%d idle=%d created=%d borrowed=%d reused=%d invalid=%d expired=%d timeouts=%d",
+                    users, active, idle, created, borrowed, reused, invalid, expired, timeouts);
+        }
+    }
+}
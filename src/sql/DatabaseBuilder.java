@@ -1,6 +1,7 @@
 package sql;
 
 import java.sql.*;
+import java.util.Arrays;
 import java.util.Properties;
 import java.util.ResourceBundle;
 
@@ -17,6 +18,53 @@ public class DatabaseBuilder {
     private DatabaseBuilder() {
     }
 
+    /**
+     * Método para componer la URL de la base de datos según el modo
+     * de conexión configurado: "network" conecta con el servidor de red
+     * de Derby, "embedded" arranca el motor de Derby dentro del propio programa
+     *
+     * @param configProps Lista de propiedades del programa
+     * @return URL de conexión con la base de datos
+     */
+    public static String databaseUrl(Properties configProps) {
+        if (isEmbedded(configProps)) {
+            return configProps.getProperty("database-url-embedded", "jdbc:derby:") + configProps.getProperty("database");
+        }
+        return configProps.getProperty("database-url") + "/" + configProps.getProperty("database");
+    }
+
+    /**
+     * Método para comprobar si la base de datos se usa en modo embebido
+     *
+     * @param configProps Lista de propiedades del programa
+     * @return Verdadero si el motor de Derby corre dentro del programa
+     */
+    public static boolean isEmbedded(Properties configProps) {
+        return configProps.getProperty("database-mode", "network").equalsIgnoreCase("embedded");
+    }
+
+    /**
+     * Método para detener la base de datos embebida, de forma que
+     * se liberen sus ficheros y se apliquen en el siguiente arranque
+     * las propiedades de la base de datos; sin efecto en modo de red
+     *
+     * @param configProps Lista de propiedades del programa
+     */
+    public static void shutdownEmbedded(Properties configProps) {
+        if (!isEmbedded(configProps)) {
+            return;
+        }
+        try {
+            DriverManager.getConnection(databaseUrl(configProps) + ";shutdown=true",
+                    configProps.getProperty("database-name"), configProps.getProperty("database-password"));
+        } catch (SQLException sqle) {
+            // Derby señala con el estado 08006 la detención correcta de la base de datos
+            if (!"08006".equals(sqle.getSQLState())) {
+                System.err.println(sqle.getMessage());
+            }
+        }
+    }
+
     /**
      * Método de ejecuciones para la creación
      * de la base de datos
@@ -36,7 +84,13 @@ public class DatabaseBuilder {
         String provider = "'derby.authentication.provider'";
         String propertiesOnly = "'derby.database.propertiesOnly'";
 
-        String url = configProps.getProperty("database-url") + "/" + configProps.getProperty("database");
+// IDs are generated by the database, so concurrent sessions never collide on inserts
+        String identity = "GENERATED ALWAYS AS IDENTITY (START WITH 1, INCREMENT BY 1)";
+
+// Lower-cased copies of the text columns, kept by the database, for case-insensitive unique keys
+        String lowered = "GENERATED ALWAYS AS (LOWER(%s))";
+
+        String url = databaseUrl(configProps);
 
         try (Connection conn = DriverManager.getConnection(url + ";user=" + configProps.getProperty("database-name") +
                                                            ";password=" + configProps.getProperty("database-password") +
@@ -76,6 +130,13 @@ public class DatabaseBuilder {
                 s.executeUpdate(String.format("DROP TABLE %s.%s", configProps.getProperty("database-name"), configProps.getProperty("database-table-1")));
                 s.executeUpdate(String.format("DROP TABLE %s.%s", configProps.getProperty("database-name"), configProps.getProperty("database-table-2")));
                 s.executeUpdate(String.format("DROP TABLE %s.%s", configProps.getProperty("database-name"), configProps.getProperty("database-table-4")));
+                for (int i = 5; i < 7; i++) {
+                    try {
+                        s.executeUpdate(String.format("DROP TABLE %s.%s", configProps.getProperty("database-name"), configProps.getProperty("database-table-" + i)));
+                    } catch (SQLException sqle) {
+// Databases built before the change log or the row counts have no such table
+                    }
+                }
                 s.executeUpdate(String.format("DROP SCHEMA %s RESTRICT", configProps.getProperty("database-name")));
                 System.out.printf("  %s\n", rb.getString("builder-cleanup"));
             } catch (SQLException sqle) {
@@ -84,26 +145,42 @@ public class DatabaseBuilder {
 //            Create schema and tables from scratch
             s.executeUpdate(String.format("CREATE SCHEMA %s", configProps.getProperty("database-name")));
 
-            s.executeUpdate(String.format("CREATE TABLE %s.%s(%s INTEGER NOT NULL,%s VARCHAR(%s),PRIMARY KEY (%s))",
+            s.executeUpdate(String.format("CREATE TABLE %s.%s(%s INTEGER NOT NULL " + identity + ",%s VARCHAR(%s),PRIMARY KEY (%s))",
                     configProps.getProperty("database-name"), configProps.getProperty("database-table-4"),
                     configProps.getProperty("database-table-4-field-1"), configProps.getProperty("database-table-4-field-2"),
                     configProps.getProperty("database-table-4-field-2-maxchar"), configProps.getProperty("database-table-4-field-1")));
 
-            s.executeUpdate(String.format("CREATE TABLE %s.%s (%s INTEGER NOT NULL,%s VARCHAR(%s),%s VARCHAR(%s),%s BOOLEAN,PRIMARY KEY (%s))",
+            s.executeUpdate(String.format("CREATE TABLE %s.%s (%s INTEGER NOT NULL " + identity + ",%s VARCHAR(%s),%s VARCHAR(%s),%s BOOLEAN," +
+                                          "%s VARCHAR(%s) " + lowered + ",%s VARCHAR(%s) " + lowered + ",PRIMARY KEY (%s),UNIQUE (%s, %s))",
                     configProps.getProperty("database-name"), configProps.getProperty("database-table-1"),
                     configProps.getProperty("database-table-1-field-1"),
                     configProps.getProperty("database-table-1-field-2"), configProps.getProperty("database-table-1-field-2-maxchar"),
                     configProps.getProperty("database-table-1-field-3"), configProps.getProperty("database-table-1-field-3-maxchar"),
-                    configProps.getProperty("database-table-1-field-4"), configProps.getProperty("database-table-1-field-1")));
+                    configProps.getProperty("database-table-1-field-4"),
+                    configProps.getProperty("database-table-1-field-5"), configProps.getProperty("database-table-1-field-2-maxchar"),
+                    configProps.getProperty("database-table-1-field-2"),
+                    configProps.getProperty("database-table-1-field-6"), configProps.getProperty("database-table-1-field-3-maxchar"),
+                    configProps.getProperty("database-table-1-field-3"),
+                    configProps.getProperty("database-table-1-field-1"),
+                    configProps.getProperty("database-table-1-field-5"), configProps.getProperty("database-table-1-field-6")));
 
-            s.executeUpdate(String.format("CREATE TABLE %s.%s (%s INTEGER NOT NULL,%s VARCHAR(%s),%s VARCHAR(%s),PRIMARY KEY (%s))",
+// Members keep their number of active loans, updated by the checkout and return transactions
+            s.executeUpdate(String.format("CREATE TABLE %s.%s (%s INTEGER NOT NULL " + identity + ",%s VARCHAR(%s),%s VARCHAR(%s)," +
+                                          "%s VARCHAR(%s) " + lowered + ",%s VARCHAR(%s) " + lowered + "," +
+                                          "%s INTEGER DEFAULT 0 NOT NULL CHECK (%s >= 0),PRIMARY KEY (%s),UNIQUE (%s, %s))",
                     configProps.getProperty("database-name"), configProps.getProperty("database-table-2"),
                     configProps.getProperty("database-table-2-field-1"),
                     configProps.getProperty("database-table-2-field-2"), configProps.getProperty("database-table-2-field-2-maxchar"),
                     configProps.getProperty("database-table-2-field-3"), configProps.getProperty("database-table-2-field-3-maxchar"),
-                    configProps.getProperty("database-table-2-field-1")));
+                    configProps.getProperty("database-table-2-field-4"), configProps.getProperty("database-table-2-field-2-maxchar"),
+                    configProps.getProperty("database-table-2-field-2"),
+                    configProps.getProperty("database-table-2-field-5"), configProps.getProperty("database-table-2-field-3-maxchar"),
+                    configProps.getProperty("database-table-2-field-3"),
+                    configProps.getProperty("database-table-2-field-6"), configProps.getProperty("database-table-2-field-6"),
+                    configProps.getProperty("database-table-2-field-1"),
+                    configProps.getProperty("database-table-2-field-4"), configProps.getProperty("database-table-2-field-5")));
 
-            s.executeUpdate(String.format("CREATE TABLE %s.%s (%s INTEGER NOT NULL,%s INTEGER NOT NULL,%s INTEGER NOT NULL,%s DATE," +
+            s.executeUpdate(String.format("CREATE TABLE %s.%s (%s INTEGER NOT NULL " + identity + ",%s INTEGER NOT NULL,%s INTEGER NOT NULL,%s DATE," +
                                           "PRIMARY KEY (%s),FOREIGN KEY (%s) REFERENCES %s(%s),FOREIGN KEY (%s) REFERENCES %s(%s))",
                     configProps.getProperty("database-name"), configProps.getProperty("database-table-3"),
                     configProps.getProperty("database-table-3-field-1"), configProps.getProperty("database-table-2-field-1"),
@@ -112,6 +189,79 @@ public class DatabaseBuilder {
                     configProps.getProperty("database-table-2-field-1"), configProps.getProperty("database-table-2"), configProps.getProperty("database-table-2-field-1"),
                     configProps.getProperty("database-table-1-field-1"), configProps.getProperty("database-table-1"), configProps.getProperty("database-table-1-field-1")));
 
+// Secondary indexes for the loan lookups by member, by book and by date,
+// ending in the loan ID so that they also serve the paged listings in that order
+            for (String field : new String[]{configProps.getProperty("database-table-2-field-1"),
+                    configProps.getProperty("database-table-1-field-1"), configProps.getProperty("database-table-3-field-4")}) {
+                s.executeUpdate(String.format("CREATE INDEX %s.%s_%s_IDX ON %s.%s (%s, %s)",
+                        configProps.getProperty("database-name"), configProps.getProperty("database-table-3"), field,
+                        configProps.getProperty("database-name"), configProps.getProperty("database-table-3"), field,
+                        configProps.getProperty("database-table-3-field-1")));
+            }
+
+// Indexes for the ordered listings of books by title and by author, of members by name and by surname
+// and of users by name, so that every ORDER BY is read from an index instead of sorted
+            for (String[] table : new String[][]{
+                    {"1", configProps.getProperty("database-table-1-field-2"), configProps.getProperty("database-table-1-field-1")},
+                    {"1", configProps.getProperty("database-table-1-field-3"), configProps.getProperty("database-table-1-field-2"),
+                            configProps.getProperty("database-table-1-field-1")},
+                    {"2", configProps.getProperty("database-table-2-field-2"), configProps.getProperty("database-table-2-field-3"),
+                            configProps.getProperty("database-table-2-field-1")},
+                    {"2", configProps.getProperty("database-table-2-field-3"), configProps.getProperty("database-table-2-field-2"),
+                            configProps.getProperty("database-table-2-field-1")},
+                    {"4", configProps.getProperty("database-table-4-field-2"), configProps.getProperty("database-table-4-field-1")}}) {
+                String tableName = configProps.getProperty("database-table-" + table[0]);
+                s.executeUpdate(String.format("CREATE INDEX %s.%s_%s_IDX ON %s.%s (%s)",
+                        configProps.getProperty("database-name"), tableName, table[1],
+                        configProps.getProperty("database-name"), tableName,
+                        String.join(", ", Arrays.copyOfRange(table, 1, table.length))));
+            }
+
+// Change log of books, members and loans, from which the in-memory replicas catch up; the table always exists,
+// but its triggers, and with them the extra insert per write and the log growth, only when the replica is enabled
+            s.executeUpdate(String.format("CREATE TABLE %s.%s (%s INTEGER NOT NULL " + identity + ",%s SMALLINT NOT NULL,%s INTEGER NOT NULL," +
+                                          "PRIMARY KEY (%s))",
+                    configProps.getProperty("database-name"), configProps.getProperty("database-table-5"),
+                    configProps.getProperty("database-table-5-field-1"), configProps.getProperty("database-table-5-field-2"),
+                    configProps.getProperty("database-table-5-field-3"), configProps.getProperty("database-table-5-field-1")));
+            for (int i = 1; i < 4 && Boolean.parseBoolean(configProps.getProperty("database-replica", "false")); i++) {
+                for (String event : new String[]{"INSERT", "UPDATE", "DELETE"}) {
+                    s.executeUpdate(String.format("CREATE TRIGGER %s.%s_%s_TRG AFTER %s ON %s.%s REFERENCING %s AS r FOR EACH ROW " +
+                                                  "INSERT INTO %s.%s (%s, %s) VALUES (%d, r.%s)",
+                            configProps.getProperty("database-name"), configProps.getProperty("database-table-" + i), event,
+                            event, configProps.getProperty("database-name"), configProps.getProperty("database-table-" + i),
+                            event.equals("DELETE") ? "OLD" : "NEW",
+                            configProps.getProperty("database-name"), configProps.getProperty("database-table-5"),
+                            configProps.getProperty("database-table-5-field-2"), configProps.getProperty("database-table-5-field-3"),
+                            i, configProps.getProperty("database-table-" + i + "-field-1")));
+                }
+            }
+
+// Row count and maximum ID of every table, kept by triggers in the same transaction as each insert and delete,
+// so that capacity checks and statistics read one row instead of scanning the table
+            s.executeUpdate(String.format("CREATE TABLE %s.%s (%s SMALLINT NOT NULL,%s INTEGER NOT NULL,%s INTEGER NOT NULL," +
+                                          "PRIMARY KEY (%s))",
+                    configProps.getProperty("database-name"), configProps.getProperty("database-table-6"),
+                    configProps.getProperty("database-table-6-field-1"), configProps.getProperty("database-table-6-field-2"),
+                    configProps.getProperty("database-table-6-field-3"), configProps.getProperty("database-table-6-field-1")));
+            for (int i = 1; i < 5; i++) {
+                String table = configProps.getProperty("database-name") + "." + configProps.getProperty("database-table-" + i);
+                String counts = configProps.getProperty("database-name") + "." + configProps.getProperty("database-table-6");
+                String id = configProps.getProperty("database-table-" + i + "-field-1");
+                String code = configProps.getProperty("database-table-6-field-1");
+                String rows = configProps.getProperty("database-table-6-field-2");
+                String max = configProps.getProperty("database-table-6-field-3");
+                s.executeUpdate(String.format("INSERT INTO %s VALUES (%d, 0, 0)", counts, i));
+                s.executeUpdate(String.format("CREATE TRIGGER %s_INSERT_CNT_TRG AFTER INSERT ON %s REFERENCING NEW AS r FOR EACH ROW " +
+                                              "UPDATE %s SET %s = %s + 1, %s = CASE WHEN r.%s > %s THEN r.%s ELSE %s END WHERE %s = %d",
+                        table, table, counts, rows, rows, max, id, max, id, max, code, i));
+// Deleting the highest ID looks the new maximum up in the primary key index
+                s.executeUpdate(String.format("CREATE TRIGGER %s_DELETE_CNT_TRG AFTER DELETE ON %s REFERENCING OLD AS r FOR EACH ROW " +
+                                              "UPDATE %s SET %s = %s - 1, %s = CASE WHEN r.%s = %s THEN (SELECT COALESCE(MAX(%s), 0) FROM %s) " +
+                                              "ELSE %s END WHERE %s = %d",
+                        table, table, counts, rows, rows, max, id, max, id, table, max, code, i));
+            }
+
 // We would set the following property to TRUE only when we were ready to deploy.
 // Setting it to FALSE means that we can always override using system properties
 // if we accidentally paint ourselves into a corner.
@@ -121,6 +271,8 @@ public class DatabaseBuilder {
         } catch (SQLException sqle) {
             System.err.printf("  %s: %s", rb.getString("builder-error"), sqle.getMessage());
         }
+// In embedded mode the database is rebooted so that authentication applies from now on
+        shutdownEmbedded(configProps);
     }
 
 }
@@ -0,0 +1,171 @@
+package sql;
+
+import sql.reservoirs.Keyset;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static utils.Utils.readProperties;
+
+/**
+ * Programa de comprobación de los planes de ejecución de las consultas
+ * más frecuentes sobre la tabla de Préstamos y de la primera y la segunda
+ * página de cada listado ordenado, a partir de las estadísticas de ejecución de Derby
+ * <p>
+ * Uso: {@code java sql.IndexCheck usuario contraseña}.
+ * Cada consulta se ejecuta con SYSCS_SET_RUNTIMESTATISTICS activado y se
+ * indica si su plan recorre un índice sin ordenar después las filas, o si
+ * recorre la tabla completa u ordena, y en las páginas siguientes a la primera
+ * si el recorrido empieza en la última entrada mostrada en vez de al principio
+ * del índice; con la opción {@code -v} se imprime además el plan completo
+ *
+ * @author JuanGS
+ * @version 1.0
+ * @since 10-2026
+ */
+public final class IndexCheck {
+    /**
+     * Patrón de la posición de inicio de un recorrido de índice que no empieza al principio
+     */
+    private static final Pattern START_KEY = Pattern.compile("start position:\\s*>=? on first");
+
+    /**
+     * Constructor privado de la clase para evitar instancias
+     */
+    private IndexCheck() {
+    }
+
+    /**
+     * Inicializador de la comprobación
+     *
+     * @param args Usuario, contraseña y, opcionalmente, -v
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Uso: java sql.IndexCheck usuario contraseña [-v]");
+            return;
+        }
+        boolean verbose = args.length > 2 && args[2].equals("-v");
+        Properties configProps = readProperties();
+        String tableName = configProps.getProperty("database-name") + "." + configProps.getProperty("database-table-3");
+        String fieldMember = configProps.getProperty("database-table-2-field-1");
+        String fieldBook = configProps.getProperty("database-table-1-field-1");
+        String fieldDate = configProps.getProperty("database-table-3-field-4");
+        String fieldLoan = configProps.getProperty("database-table-3-field-1");
+
+        try (Connection con = DriverManager.getConnection(DatabaseBuilder.databaseUrl(configProps), args[0], args[1])) {
+            int idMember = 0;
+            int idBook = 0;
+            Date date = Date.valueOf(LocalDate.now());
+            try (PreparedStatement pStmt = con.prepareStatement(String.format(
+                    "SELECT %s, %s, %s FROM %s FETCH FIRST ROW ONLY", fieldMember, fieldBook, fieldDate, tableName));
+                 ResultSet rs = pStmt.executeQuery()) {
+                if (rs.next()) {
+                    idMember = rs.getInt(1);
+                    idBook = rs.getInt(2);
+                    date = rs.getDate(3);
+                }
+            }
+
+            Map<String, Object[]> queries = new LinkedHashMap<>();
+            Set<String> nextPages = new HashSet<>();
+            queries.put(String.format("SELECT * FROM %s WHERE %s = ? ORDER BY %s", tableName, fieldMember, fieldLoan),
+                    new Object[]{idMember});
+            queries.put(String.format("SELECT * FROM %s WHERE %s = ? ORDER BY %s", tableName, fieldBook, fieldLoan),
+                    new Object[]{idBook});
+            queries.put(String.format("SELECT * FROM %s WHERE %s = ? ORDER BY %s", tableName, fieldDate, fieldLoan),
+                    new Object[]{date});
+            queries.put(String.format("SELECT %s FROM %s.%s WHERE %s = ?", configProps.getProperty("database-table-2-field-6"),
+                    configProps.getProperty("database-name"), configProps.getProperty("database-table-2"), fieldMember),
+                    new Object[]{idMember});
+            for (String[] listing : new String[][]{
+                    {"1", configProps.getProperty("database-table-1-field-2"), configProps.getProperty("database-table-1-field-1")},
+                    {"1", configProps.getProperty("database-table-1-field-3"), configProps.getProperty("database-table-1-field-2"),
+                            configProps.getProperty("database-table-1-field-1")},
+                    {"2", configProps.getProperty("database-table-2-field-2"), configProps.getProperty("database-table-2-field-3"),
+                            configProps.getProperty("database-table-2-field-1")},
+                    {"2", configProps.getProperty("database-table-2-field-3"), configProps.getProperty("database-table-2-field-2"),
+                            configProps.getProperty("database-table-2-field-1")},
+                    {"3", fieldMember, fieldLoan}, {"3", fieldBook, fieldLoan}, {"3", fieldDate, fieldLoan}}) {
+                String select = String.format("SELECT * FROM %s.%s",
+                        configProps.getProperty("database-name"), configProps.getProperty("database-table-" + listing[0]));
+                String[] columns = Arrays.copyOfRange(listing, 1, listing.length);
+                int size = Integer.parseInt(configProps.getProperty("database-page-size"));
+                queries.put(Keyset.page(select, true, columns), Keyset.params(size));
+// The second page starts after the last entry of the first one; with an empty table there is none to start from
+                Object[] last = null;
+                try (PreparedStatement pStmt = con.prepareStatement(Keyset.page(select, true, columns))) {
+                    Keyset.bind(pStmt, size);
+                    try (ResultSet rs = pStmt.executeQuery()) {
+                        while (rs.next()) {
+                            last = new Object[columns.length];
+                            for (int i = 0; i < columns.length; i++) {
+                                last[i] = rs.getObject(columns[i]);
+                            }
+                        }
+                    }
+                }
+                if (last != null) {
+                    String next = Keyset.page(select, false, columns);
+                    queries.put(next, Keyset.params(size, last));
+                    nextPages.add(next);
+                }
+            }
+
+            try (CallableStatement cStmt = con.prepareCall("CALL SYSCS_UTIL.SYSCS_SET_RUNTIMESTATISTICS(1)")) {
+                cStmt.execute();
+            }
+            int scans = 0;
+            for (Map.Entry<String, Object[]> query : queries.entrySet()) {
+                String plan = plan(con, query.getKey(), query.getValue());
+                boolean indexed = plan.contains("Index Scan ResultSet") && !plan.contains("Sort ResultSet") &&
+                                  (!nextPages.contains(query.getKey()) || START_KEY.matcher(plan).find());
+                scans += indexed ? 0 : 1;
+                System.out.printf("  [%s] %s\n", indexed ? "index" : "scan ", query.getKey());
+                if (verbose || !indexed) {
+                    System.out.println(plan);
+                }
+            }
+            try (CallableStatement cStmt = con.prepareCall("CALL SYSCS_UTIL.SYSCS_SET_RUNTIMESTATISTICS(0)")) {
+                cStmt.execute();
+            }
+            System.out.printf("\n  %d/%d\n", queries.size() - scans, queries.size());
+        } catch (SQLException sqle) {
+            System.err.println(sqle.getMessage());
+        }
+    }
+
+    /**
+     * Método para ejecutar una consulta y leer el plan
+     * con el que Derby la ha resuelto
+     *
+     * @param con    Conexión con las estadísticas de ejecución activadas
+     * @param query  Consulta a ejecutar
+     * @param params Parámetros de la consulta
+     * @return Estadísticas de ejecución de la consulta
+     * @throws SQLException Excepción en la ejecución de la consulta
+     */
+    private static String plan(Connection con, String query, Object[] params) throws SQLException {
+        try (PreparedStatement pStmt = con.prepareStatement(query)) {
+            for (int i = 0; i < params.length; i++) {
+                pStmt.setObject(i + 1, params[i]);
+            }
+            try (ResultSet rs = pStmt.executeQuery()) {
+                while (rs.next()) {
+                    rs.getObject(1);
+                }
+            }
+        }
+        try (PreparedStatement pStmt = con.prepareStatement("VALUES SYSCS_UTIL.SYSCS_GET_RUNTIMESTATISTICS()");
+             ResultSet rs = pStmt.executeQuery()) {
+            return rs.next() ? rs.getString(1) : "";
+        }
+    }
+}
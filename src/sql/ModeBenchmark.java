@@ -0,0 +1,180 @@
+package sql;
+
+import sql.reservoirs.LibDBBook;
+import sql.reservoirs.LibDBLoan;
+import sql.reservoirs.LibDBMember;
+import sql.reservoirs.Replica;
+import tables.Book;
+import tables.User;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.ResourceBundle;
+
+import static utils.Utils.readLanguage;
+import static utils.Utils.readProperties;
+
+/**
+ * Programa de medición que compara los modos de conexión
+ * de red y embebido de Derby sobre las operaciones habituales
+ * de las clases DAO
+ * <p>
+ * Uso: {@code java sql.ModeBenchmark usuario contraseña [iteraciones]}.
+ * Cada modo se mide sobre su propia base de datos, que debe estar ya
+ * montada: la del servidor de red en database-url y la embebida en
+ * database-url-embedded. El modo de red se omite si el servidor no responde.
+ * Las cachés de las clases DAO se vacían al cambiar de modo y antes de cada
+ * búsqueda medida, para medir el acceso a la base de datos y no la caché.
+ * Los libros que se añaden durante la medición se eliminan al terminar
+ *
+ * @author JuanGS
+ * @version 1.0
+ * @since 10-2026
+ */
+public final class ModeBenchmark {
+    /**
+     * Número de iteraciones de calentamiento antes de medir
+     */
+    private static final int WARMUP = 50;
+
+    /**
+     * Constructor privado de la clase para evitar instancias
+     */
+    private ModeBenchmark() {
+    }
+
+    /**
+     * Inicializador de la medición
+     *
+     * @param args Usuario, contraseña y, opcionalmente, número de iteraciones
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Uso: java sql.ModeBenchmark usuario contraseña [iteraciones]");
+            return;
+        }
+        Properties configProps = readProperties();
+        ResourceBundle rb = readLanguage(configProps.getProperty("program-lang", "es"),
+                configProps.getProperty("program-country", "ES"));
+        User user = new User(args[0], args[1]);
+        int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+
+        Map<String, Properties> modes = new LinkedHashMap<>();
+        for (String mode : new String[]{"network", "embedded"}) {
+            Properties modeProps = new Properties();
+            modeProps.putAll(configProps);
+            modeProps.setProperty("database-mode", mode);
+            modes.put(mode, modeProps);
+        }
+
+        Map<String, Map<String, Double>> results = new LinkedHashMap<>();
+        for (Map.Entry<String, Properties> mode : modes.entrySet()) {
+            String url = DatabaseBuilder.databaseUrl(mode.getValue());
+            try (Connection con = DriverManager.getConnection(url, user.getName(), user.getPassword())) {
+                con.isReadOnly();
+            } catch (SQLException sqle) {
+                System.err.printf("  %s (%s): %s\n", mode.getKey(), url, sqle.getMessage());
+                continue;
+            }
+            ConnectionPool.getInstance().switchUrl(url);
+            clearCaches();
+            results.put(mode.getKey(), run(user, rb, iterations));
+//            Close the pooled connections before stopping an embedded database
+            ConnectionPool.getInstance().switchUrl(url);
+            DatabaseBuilder.shutdownEmbedded(mode.getValue());
+        }
+
+        System.out.printf("\n%-28s", "µs/op (" + iterations + " it.)");
+        results.keySet().forEach(mode -> System.out.printf("%14s", mode));
+        System.out.println();
+        if (!results.isEmpty()) {
+            for (String op : results.values().iterator().next().keySet()) {
+                System.out.printf("%-28s", op);
+                results.values().forEach(times -> System.out.printf("%14.1f", times.get(op)));
+                System.out.println();
+            }
+        }
+        System.out.println("\n" + ConnectionPool.getInstance().getStatistics());
+    }
+
+    /**
+     * Método de medición de las operaciones DAO sobre la base de datos activa
+     *
+     * @param user       Usuario con el que conectar
+     * @param rb         Recurso para la localización
+     *                   del texto del programa
+     * @param iterations Número de iteraciones medidas por operación
+     * @return Tiempo medio por operación en microsegundos
+     */
+    private static Map<String, Double> run(User user, ResourceBundle rb, int iterations) {
+        Map<String, Double> times = new LinkedHashMap<>();
+        LibDBBook books = LibDBBook.getInstance();
+        int[] count = books.countDB(user, rb);
+        int idBook = count == null ? 0 : count[1];
+
+        times.put("countDB (3 tablas)", measure(iterations, () -> {
+            books.countDB(user, rb);
+            LibDBMember.getInstance().countDB(user, rb);
+            LibDBLoan.getInstance().countDB(user, rb);
+        }));
+        times.put("searchDB libros", measure(iterations, () -> books.searchDB(user, rb)));
+        if (idBook > 0) {
+            times.put("searchTB libro por ID", measure(iterations, () -> {
+                books.getCache().invalidate(idBook);
+                books.searchTB(user, idBook, rb);
+            }));
+        }
+        times.put("searchTB libro por título", measure(iterations, () -> {
+            books.getResults().clear();
+            books.getNotFound().clear();
+            books.searchTB(user, 2, "a", rb);
+        }));
+        times.put("addDb + deleteDB libro", measure(iterations, () -> {
+            int id = books.addDb(user, new Book(0, "benchmark " + System.nanoTime(), "benchmark"), rb);
+            books.deleteDB(user, id, rb);
+        }));
+        return times;
+    }
+
+    /**
+     * Método para vaciar las cachés de las clases DAO y la copia en memoria,
+     * de forma que no se sirvan datos leídos de la base de datos del otro modo
+     */
+    private static void clearCaches() {
+        LibDBBook.getInstance().clearCaches();
+        LibDBMember.getInstance().clearCaches();
+        LibDBLoan.getInstance().clearCaches();
+        Replica.getInstance().reset();
+    }
+
+    /**
+     * Método para medir el tiempo medio de una operación, silenciando
+     * los mensajes que imprimen las clases DAO
+     *
+     * @param iterations Número de iteraciones medidas
+     * @param operation  Operación a medir
+     * @return Tiempo medio por iteración en microsegundos
+     */
+    private static double measure(int iterations, Runnable operation) {
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            for (int i = 0; i < WARMUP; i++) {
+                operation.run();
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                operation.run();
+            }
+            return (System.nanoTime() - start) / 1000.0 / iterations;
+        } finally {
+            System.setOut(out);
+        }
+    }
+}
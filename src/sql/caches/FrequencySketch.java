@@ -0,0 +1,128 @@
+package sql.caches;
+
+/**
+ * Clase de estimación aproximada de la frecuencia de acceso a cada clave,
+ * con un esbozo Count-Min de contadores de 4 bits
+ * <p>
+ * Cada clave incrementa un contador en cada una de cuatro filas, y su
+ * frecuencia es el menor de ellos; tras un número de incrementos proporcional
+ * a la capacidad, todos los contadores se dividen a la mitad para que la
+ * historia antigua pierda peso frente a la reciente
+ *
+ * @author JuanGS
+ * @version 1.0
+ * @since 10-2026
+ */
+final class FrequencySketch {
+    /**
+     * Semillas de dispersión de cada fila del esbozo
+     */
+    private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L,
+            0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    /**
+     * Máscara que descarta el bit que pasa de un contador al siguiente al dividirlos
+     */
+    private static final long RESET_MASK = 0x7777777777777777L;
+    /**
+     * Contadores de 4 bits, dieciséis por elemento
+     */
+    private final long[] table;
+    /**
+     * Máscara de posición en la tabla, de tamaño potencia de dos
+     */
+    private final int mask;
+    /**
+     * Número de incrementos tras el que se dividen los contadores
+     */
+    private final int sampleSize;
+    /**
+     * Número de incrementos desde la última división
+     */
+    private int size;
+
+    /**
+     * Constructor del esbozo
+     *
+     * @param capacity Número aproximado de claves a distinguir
+     */
+    FrequencySketch(int capacity) {
+        int length = Integer.highestOneBit(Math.max(capacity, 16) - 1) << 1;
+        table = new long[length];
+        mask = length - 1;
+        sampleSize = 10 * Math.max(capacity, 16);
+    }
+
+    /**
+     * Método para estimar la frecuencia de una clave
+     *
+     * @param key Clave consultada
+     * @return Frecuencia estimada, entre 0 y 15
+     */
+    int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int frequency = 15;
+        for (int i = 0; i < SEEDS.length; i++) {
+            frequency = Math.min(frequency, (int) (table[index(hash, i)] >>> shift(hash, i)) & 0xf);
+        }
+        return frequency;
+    }
+
+    /**
+     * Método para anotar un acceso a una clave
+     *
+     * @param key Clave accedida
+     */
+    void increment(Object key) {
+        int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            int index = index(hash, i);
+            int shift = shift(hash, i);
+            if (((table[index] >>> shift) & 0xf) < 15) {
+                table[index] += 1L << shift;
+                added = true;
+            }
+        }
+        if (added && ++size == sampleSize) {
+            for (int i = 0; i < table.length; i++) {
+                table[i] = (table[i] >>> 1) & RESET_MASK;
+            }
+            size /= 2;
+        }
+    }
+
+    /**
+     * Método para dispersar los bits del código hash de una clave
+     *
+     * @param hashCode Código hash de la clave
+     * @return Código dispersado
+     */
+    private static int spread(int hashCode) {
+        int h = hashCode * 0x9e3779b9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Método para obtener la posición en la tabla del contador de una fila
+     *
+     * @param hash Código dispersado de la clave
+     * @param i    Fila del esbozo
+     * @return Posición en la tabla
+     */
+    private int index(int hash, int i) {
+        long h = (hash + SEEDS[i]) * SEEDS[i];
+        return (int) (h + (h >>> 32)) & mask;
+    }
+
+    /**
+     * Método para obtener el desplazamiento del contador de una fila
+     * dentro de su elemento de la tabla
+     *
+     * @param hash Código dispersado de la clave
+     * @param i    Fila del esbozo
+     * @return Desplazamiento en bits
+     */
+    private static int shift(int hash, int i) {
+        return ((hash >>> (i << 3)) & 0xf) << 2;
+    }
+}
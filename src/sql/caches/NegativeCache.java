@@ -0,0 +1,132 @@
+package sql.caches;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Clase de caché de búsquedas sin resultados, acotada en número
+ * de claves y de corta duración
+ * <p>
+ * Una búsqueda vacía se anota con su clave, y mientras no caduque
+ * las búsquedas repetidas se responden vacías sin consultar la base de datos.
+ * Las altas en la tabla vacían la caché, porque pueden dar resultados a
+ * cualquier búsqueda anotada; las bajas no pueden, así que no la vacían.
+ * Si la caché se vacía mientras se busca, la búsqueda no se anota,
+ * para no ocultar un alta hecha durante ella
+ *
+ * @param <K> Clase de las claves de búsqueda
+ * @author JuanGS
+ * @version 1.0
+ * @since 10-2026
+ */
+public final class NegativeCache<K> {
+    /**
+     * Número máximo de claves anotadas
+     */
+    private final int capacity;
+    /**
+     * Tiempo de caducidad de las claves, en milisegundos
+     */
+    private final long expireAfter;
+    /**
+     * Instante de anotación de cada clave, de la más antigua a la más reciente
+     */
+    private final LinkedHashMap<K, Long> entries;
+    /**
+     * Contador de vaciados, para descartar búsquedas solapadas con ellos
+     */
+    private long version;
+    /**
+     * Número de búsquedas respondidas desde la caché
+     */
+    private long hits;
+    /**
+     * Número de búsquedas no anotadas
+     */
+    private long misses;
+
+    /**
+     * Constructor de la caché
+     *
+     * @param capacity    Número máximo de claves anotadas
+     * @param expireAfter Tiempo de caducidad de las claves, en milisegundos
+     */
+    public NegativeCache(int capacity, long expireAfter) {
+        this.capacity = capacity;
+        this.expireAfter = expireAfter;
+        this.entries = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Long> eldest) {
+                return size() > NegativeCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Método para comprobar si una búsqueda está anotada como vacía
+     *
+     * @param key Clave de la búsqueda
+     * @return Verdadero si la búsqueda se sabe vacía y no ha caducado
+     */
+    public synchronized boolean contains(K key) {
+        Long addedAt = entries.get(key);
+        if (addedAt != null && System.currentTimeMillis() - addedAt <= expireAfter) {
+            hits++;
+            return true;
+        }
+        if (addedAt != null) {
+            entries.remove(key);
+        }
+        misses++;
+        return false;
+    }
+
+    /**
+     * Método getter del contador de vaciados, a leer antes de buscar
+     *
+     * @return Valor actual del contador
+     */
+    public synchronized long version() {
+        return version;
+    }
+
+    /**
+     * Método para anotar una búsqueda vacía, salvo que la caché
+     * se haya vaciado desde que empezó
+     *
+     * @param key     Clave de la búsqueda
+     * @param version Valor del contador de vaciados al empezar la búsqueda
+     */
+    public synchronized void add(K key, long version) {
+        if (this.version == version) {
+            entries.remove(key);
+            entries.put(key, System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Método para vaciar la caché tras un alta en la tabla
+     */
+    public synchronized void clear() {
+        version++;
+        entries.clear();
+    }
+
+    /**
+     * Método getter del número de aciertos
+     *
+     * @return Número de búsquedas respondidas desde la caché
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Método getter del número de fallos
+     *
+     * @return Número de búsquedas no anotadas
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+}
@@ -0,0 +1,427 @@
+/**
+ * Paquete de cachés en memoria de las entradas
+ * leídas de la base de datos
+ */
+package sql.caches;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * Clase de caché de lectura acotada por peso, con admisión W-TinyLFU
+ * <p>
+ * Las entradas nuevas entran en una ventana LRU del 1 % del peso; la que
+ * sale de la ventana solo pasa a la zona principal si su frecuencia estimada
+ * de acceso supera a la de la entrada que tendría que desalojar, de modo que
+ * un recorrido completo de una tabla no vacía la caché de las entradas
+ * consultadas a menudo. La zona principal es un LRU segmentado: las entradas
+ * admitidas esperan en período de prueba y pasan a la zona protegida,
+ * del 80 % de su peso, al volver a consultarse
+ * <p>
+ * Una consulta que falla en la caché lee la entrada de la base de datos
+ * y la guarda; las entradas caducan pasado el tiempo dado desde su lectura,
+ * y las clases DAO invalidan las que modifican. Si una entrada se invalida
+ * mientras se lee, el valor leído no se guarda, para no reponer una
+ * versión anterior a la modificación
+ *
+ * @param <K> Clase de las claves
+ * @param <V> Clase de los valores guardados
+ * @author JuanGS
+ * @version 1.0
+ * @since 10-2026
+ */
+public final class TinyLfuCache<K, V> {
+    /**
+     * Interfaz de lectura de un valor de la base de datos
+     *
+     * @param <K> Clase de la clave
+     * @param <V> Clase del valor leído
+     */
+    @FunctionalInterface
+    public interface Loader<K, V> {
+        /**
+         * Método para leer el valor de una clave
+         *
+         * @param key Clave del valor
+         * @return Valor leído, o nulo si no existe
+         * @throws SQLException Excepción en la lectura de la tabla
+         */
+        V load(K key) throws SQLException;
+    }
+
+    /**
+     * Clase de entrada de la caché
+     *
+     * @param <K> Clase de la clave
+     * @param <V> Clase del valor
+     */
+    private static final class Node<K, V> {
+        /**
+         * Clave de la entrada
+         */
+        private final K key;
+        /**
+         * Valor de la entrada
+         */
+        private final V value;
+        /**
+         * Peso de la entrada
+         */
+        private final int weight;
+        /**
+         * Instante de lectura, en milisegundos
+         */
+        private final long loadedAt;
+        /**
+         * Segmento en el que está la entrada
+         */
+        private Map<K, Node<K, V>> segment;
+
+        /**
+         * Constructor de la entrada
+         *
+         * @param key      Clave de la entrada
+         * @param value    Valor de la entrada
+         * @param weight   Peso de la entrada
+         * @param loadedAt Instante de lectura
+         */
+        private Node(K key, V value, int weight, long loadedAt) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    /**
+     * Peso máximo de la caché
+     */
+    private final long maxWeight;
+    /**
+     * Peso máximo de la ventana
+     */
+    private final long windowMax;
+    /**
+     * Peso máximo de la zona protegida
+     */
+    private final long protectedMax;
+    /**
+     * Cálculo del peso de cada valor
+     */
+    private final ToIntFunction<V> weigher;
+    /**
+     * Tiempo de caducidad de las entradas, en milisegundos; 0 para no caducar
+     */
+    private final long expireAfter;
+    /**
+     * Estimación de la frecuencia de acceso a cada clave
+     */
+    private final FrequencySketch sketch;
+    /**
+     * Entradas de la caché por su clave
+     */
+    private final Map<K, Node<K, V>> data = new HashMap<>();
+    /**
+     * Ventana de entradas nuevas, de la menos a la más reciente
+     */
+    private final Map<K, Node<K, V>> window = new LinkedHashMap<>();
+    /**
+     * Entradas admitidas en período de prueba, de la menos a la más reciente
+     */
+    private final Map<K, Node<K, V>> probation = new LinkedHashMap<>();
+    /**
+     * Entradas admitidas consultadas de nuevo, de la menos a la más reciente
+     */
+    private final Map<K, Node<K, V>> protect = new LinkedHashMap<>();
+    /**
+     * Pesos de la ventana, de la zona principal y de la zona protegida
+     */
+    private long windowWeight, mainWeight, protectedWeight;
+    /**
+     * Contador de invalidaciones, para descartar lecturas solapadas con ellas
+     */
+    private long version;
+    /**
+     * Número de consultas servidas desde la caché
+     */
+    private long hits;
+    /**
+     * Número de consultas leídas de la base de datos
+     */
+    private long misses;
+    /**
+     * Número de entradas desalojadas o no admitidas por falta de espacio
+     */
+    private long evictions;
+    /**
+     * Número de entradas descartadas por caducidad
+     */
+    private long expirations;
+
+    /**
+     * Constructor de la caché
+     *
+     * @param maxWeight   Peso máximo de las entradas guardadas
+     * @param weigher     Cálculo del peso de cada valor, al menos 1
+     * @param expireAfter Tiempo de caducidad de las entradas, en milisegundos;
+     *                    0 para no caducar
+     */
+    public TinyLfuCache(long maxWeight, ToIntFunction<V> weigher, long expireAfter) {
+        this.maxWeight = Math.max(maxWeight, 1);
+        this.windowMax = Math.max(this.maxWeight / 100, 1);
+        this.protectedMax = (this.maxWeight - windowMax) * 8 / 10;
+        this.weigher = weigher;
+        this.expireAfter = expireAfter;
+        this.sketch = new FrequencySketch((int) Math.min(this.maxWeight, 1 << 20));
+    }
+
+    /**
+     * Método para obtener un valor, leyéndolo de la base de datos
+     * y guardándolo si no está en la caché
+     *
+     * @param key    Clave del valor
+     * @param loader Lectura del valor en caso de fallo
+     * @return Valor de la clave, o nulo si no existe
+     * @throws SQLException Excepción en la lectura de la tabla
+     */
+    public V get(K key, Loader<K, V> loader) throws SQLException {
+        long loadVersion;
+        synchronized (this) {
+            sketch.increment(key);
+            Node<K, V> node = data.get(key);
+            if (node != null && expireAfter > 0 && System.currentTimeMillis() - node.loadedAt > expireAfter) {
+                remove(node);
+                expirations++;
+                node = null;
+            }
+            if (node != null) {
+                hits++;
+                onAccess(node);
+                return node.value;
+            }
+            misses++;
+            loadVersion = version;
+        }
+
+        V value = loader.load(key);
+        if (value != null) {
+            synchronized (this) {
+                if (version == loadVersion) {
+                    put(key, value);
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Método para guardar un valor leído en la ventana
+     *
+     * @param key   Clave del valor
+     * @param value Valor leído
+     */
+    private void put(K key, V value) {
+        Node<K, V> old = data.get(key);
+        if (old != null) {
+            remove(old);
+        }
+        int weight = Math.max(weigher.applyAsInt(value), 1);
+        if (weight > maxWeight - windowMax) {
+            return;
+        }
+        Node<K, V> node = new Node<>(key, value, weight, System.currentTimeMillis());
+        data.put(key, node);
+        node.segment = window;
+        window.put(key, node);
+        windowWeight += weight;
+
+        while (windowWeight > windowMax && !window.isEmpty()) {
+            Node<K, V> candidate = window.values().iterator().next();
+            window.remove(candidate.key);
+            windowWeight -= candidate.weight;
+            admit(candidate);
+        }
+    }
+
+    /**
+     * Método para pasar a la zona principal una entrada salida de la ventana,
+     * desalojando las entradas de menor frecuencia que ella; si alguna de
+     * las que habría que desalojar es más frecuente, la entrada no se admite
+     *
+     * @param candidate Entrada salida de la ventana
+     */
+    private void admit(Node<K, V> candidate) {
+        while (mainWeight + candidate.weight > maxWeight - windowMax) {
+            Map<K, Node<K, V>> segment = probation.isEmpty() ? protect : probation;
+            Node<K, V> victim = segment.values().iterator().next();
+            if (sketch.frequency(candidate.key) <= sketch.frequency(victim.key)) {
+                data.remove(candidate.key);
+                evictions++;
+                return;
+            }
+            remove(victim);
+            evictions++;
+        }
+        candidate.segment = probation;
+        probation.put(candidate.key, candidate);
+        mainWeight += candidate.weight;
+    }
+
+    /**
+     * Método para actualizar la posición de una entrada consultada:
+     * pasa a la más reciente de su segmento, y de prueba a protegida;
+     * las protegidas más antiguas vuelven a prueba hasta que la zona
+     * protegida cabe en su peso, salvo la propia entrada consultada
+     *
+     * @param node Entrada consultada
+     */
+    private void onAccess(Node<K, V> node) {
+        node.segment.remove(node.key);
+        if (node.segment == probation) {
+            node.segment = protect;
+            protect.put(node.key, node);
+            protectedWeight += node.weight;
+            while (protectedWeight > protectedMax) {
+                Node<K, V> demoted = protect.values().iterator().next();
+                if (demoted == node) {
+                    break;
+                }
+                protect.remove(demoted.key);
+                protectedWeight -= demoted.weight;
+                demoted.segment = probation;
+                probation.put(demoted.key, demoted);
+            }
+            return;
+        }
+        node.segment.put(node.key, node);
+    }
+
+    /**
+     * Método para retirar una entrada de la caché y de su segmento
+     *
+     * @param node Entrada a retirar
+     */
+    private void remove(Node<K, V> node) {
+        data.remove(node.key);
+        node.segment.remove(node.key);
+        if (node.segment == window) {
+            windowWeight -= node.weight;
+        } else {
+            mainWeight -= node.weight;
+            if (node.segment == protect) {
+                protectedWeight -= node.weight;
+            }
+        }
+    }
+
+    /**
+     * Método para descartar un valor modificado en la base de datos
+     *
+     * @param key Clave del valor
+     */
+    public synchronized void invalidate(K key) {
+        version++;
+        Node<K, V> node = data.get(key);
+        if (node != null) {
+            remove(node);
+        }
+    }
+
+    /**
+     * Método para descartar todos los valores guardados
+     */
+    public synchronized void clear() {
+        version++;
+        data.clear();
+        window.clear();
+        probation.clear();
+        protect.clear();
+        windowWeight = mainWeight = protectedWeight = 0;
+    }
+
+    /**
+     * Método para descartar los valores caducados sin esperar a su consulta
+     */
+    public synchronized void cleanUp() {
+        if (expireAfter <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        List<Node<K, V>> expired = new ArrayList<>();
+        for (Node<K, V> node : data.values()) {
+            if (now - node.loadedAt > expireAfter) {
+                expired.add(node);
+            }
+        }
+        expired.forEach(this::remove);
+        expirations += expired.size();
+    }
+
+    /**
+     * Método getter del número de entradas guardadas
+     *
+     * @return Número de entradas en la caché
+     */
+    public synchronized int size() {
+        return data.size();
+    }
+
+    /**
+     * Método getter del peso de las entradas guardadas
+     *
+     * @return Suma de los pesos de las entradas en la caché
+     */
+    public synchronized long getWeight() {
+        return windowWeight + mainWeight;
+    }
+
+    /**
+     * Método getter del número de aciertos
+     *
+     * @return Número de consultas servidas desde la caché
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Método getter del número de fallos
+     *
+     * @return Número de consultas leídas de la base de datos
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Método getter del número de descartes
+     *
+     * @return Número de entradas desalojadas o no admitidas por falta de espacio
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Método getter del número de caducidades
+     *
+     * @return Número de entradas descartadas por caducidad
+     */
+    public synchronized long getExpirations() {
+        return expirations;
+    }
+
+    /**
+     * Método para calcular la tasa de aciertos
+     *
+     * @return Fracción de consultas servidas desde la caché, 0 si no hay consultas
+     */
+    public synchronized double getHitRate() {
+        return hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+    }
+}
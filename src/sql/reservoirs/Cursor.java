@@ -0,0 +1,231 @@
+package sql.reservoirs;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Clase auxiliar para recorrer una consulta completa como un flujo
+ * de objetos, sin reunirlos antes en una lista
+ * <p>
+ * La consulta se abre con un cursor de solo avance y solo lectura,
+ * que trae las filas del servidor por bloques del tamaño indicado;
+ * cada fila se convierte en objeto al pedirla, de modo que la memoria
+ * ocupada no depende del tamaño de la tabla. El flujo mantiene abierta
+ * su conexión y debe cerrarse, preferiblemente con try-with-resources
+ *
+ * @author JuanGS
+ * @version 1.0
+ * @since 10-2026
+ */
+public final class Cursor {
+    /**
+     * Constructor privado de la clase para evitar instancias
+     */
+    private Cursor() {
+    }
+
+    /**
+     * Interfaz de conversión de la fila actual de una consulta en objeto
+     *
+     * @param <T> Clase del objeto construido
+     */
+    @FunctionalInterface
+    public interface RowReader<T> {
+        /**
+         * Método para construir el objeto de la fila actual
+         *
+         * @param rs Resultado de la consulta, situado en la fila
+         * @return Objeto construido
+         * @throws SQLException Si falla la lectura de alguna columna
+         */
+        T read(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Método para abrir el flujo de una consulta, un objeto por fila
+     *
+     * @param con       Conexión con la base de datos, que se cierra con el flujo
+     * @param query     Consulta SQL sin parámetros
+     * @param fetchSize Número de filas por bloque leído del servidor
+     * @param reader    Conversión de cada fila en objeto
+     * @param <T>       Clase de los objetos del flujo
+     * @return Flujo de objetos, que debe cerrarse tras su uso
+     * @throws SQLException Si falla la apertura de la consulta;
+     *                      la conexión queda entonces cerrada
+     */
+    public static <T> Stream<T> stream(Connection con, String query, int fetchSize, RowReader<T> reader)
+            throws SQLException {
+        return stream(con, query, fetchSize, reader, null, null);
+    }
+
+    /**
+     * Método para abrir el flujo de una consulta ordenada cuyas filas
+     * seguidas con la misma clave se unen en un único objeto
+     *
+     * @param con       Conexión con la base de datos, que se cierra con el flujo
+     * @param query     Consulta SQL sin parámetros, ordenada por la clave
+     * @param fetchSize Número de filas por bloque leído del servidor
+     * @param reader    Conversión de cada fila en objeto
+     * @param key       Clave de agrupación de los objetos; sin agrupación si es nula
+     * @param merge     Unión del objeto acumulado con el de la fila siguiente
+     * @param <T>       Clase de los objetos del flujo
+     * @return Flujo de objetos, que debe cerrarse tras su uso
+     * @throws SQLException Si falla la apertura de la consulta;
+     *                      la conexión queda entonces cerrada
+     */
+    public static <T> Stream<T> stream(Connection con, String query, int fetchSize, RowReader<T> reader,
+                                       ToIntFunction<T> key, BinaryOperator<T> merge) throws SQLException {
+        PreparedStatement pStmt = null;
+        ResultSet rs;
+        try {
+            pStmt = con.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            pStmt.setFetchSize(fetchSize);
+            rs = pStmt.executeQuery();
+        } catch (SQLException sqle) {
+            if (pStmt != null) {
+                pStmt.close();
+            }
+            con.close();
+            throw sqle;
+        }
+
+        PreparedStatement statement = pStmt;
+        return StreamSupport.stream(new Rows<>(rs, reader, key, merge), false)
+                .onClose(() -> close(rs, statement, con));
+    }
+
+    /**
+     * Método para cerrar la consulta y devolver la conexión, en ese orden;
+     * se intenta cerrar todo aunque falle algún cierre, y se lanza
+     * la primera excepción con las demás como suprimidas
+     *
+     * @param rs    Resultado de la consulta
+     * @param pStmt Consulta preparada
+     * @param con   Conexión con la base de datos
+     */
+    private static void close(ResultSet rs, PreparedStatement pStmt, Connection con) {
+        SQLException first = null;
+        try {
+            rs.close();
+        } catch (SQLException sqle) {
+            first = sqle;
+        }
+        try {
+            pStmt.close();
+        } catch (SQLException sqle) {
+            first = collect(first, sqle);
+        }
+        try {
+            con.close();
+        } catch (SQLException sqle) {
+            first = collect(first, sqle);
+        }
+        if (first != null) {
+            throw new RuntimeException(first.getMessage(), first);
+        }
+    }
+
+    /**
+     * Método para reunir las excepciones de los cierres
+     *
+     * @param first Primera excepción, o nula si aún no ha habido ninguna
+     * @param sqle  Nueva excepción
+     * @return Primera excepción, con la nueva como suprimida si ya la había
+     */
+    private static SQLException collect(SQLException first, SQLException sqle) {
+        if (first == null) {
+            return sqle;
+        }
+        first.addSuppressed(sqle);
+        return first;
+    }
+
+    /**
+     * Clase interna de recorrido de las filas de la consulta
+     *
+     * @param <T> Clase de los objetos del flujo
+     */
+    private static final class Rows<T> extends Spliterators.AbstractSpliterator<T> {
+        /**
+         * Resultado de la consulta
+         */
+        private final ResultSet rs;
+        /**
+         * Conversión de cada fila en objeto
+         */
+        private final RowReader<T> reader;
+        /**
+         * Clave de agrupación de los objetos, o nula
+         */
+        private final ToIntFunction<T> key;
+        /**
+         * Unión de objetos con la misma clave
+         */
+        private final BinaryOperator<T> merge;
+        /**
+         * Objeto leído y aún no entregado, a la espera de filas de su grupo
+         */
+        private T pending;
+        /**
+         * Verdadero al agotarse las filas de la consulta
+         */
+        private boolean exhausted;
+
+        /**
+         * Constructor del recorrido
+         *
+         * @param rs     Resultado de la consulta
+         * @param reader Conversión de cada fila en objeto
+         * @param key    Clave de agrupación de los objetos, o nula
+         * @param merge  Unión de objetos con la misma clave
+         */
+        private Rows(ResultSet rs, RowReader<T> reader, ToIntFunction<T> key, BinaryOperator<T> merge) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.rs = rs;
+            this.reader = reader;
+            this.key = key;
+            this.merge = merge;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            try {
+                while (!exhausted && rs.next()) {
+                    T t = reader.read(rs);
+                    if (key == null) {
+                        action.accept(t);
+                        return true;
+                    }
+                    if (pending != null && key.applyAsInt(pending) == key.applyAsInt(t)) {
+                        pending = merge.apply(pending, t);
+                    } else {
+                        T done = pending;
+                        pending = t;
+                        if (done != null) {
+                            action.accept(done);
+                            return true;
+                        }
+                    }
+                }
+                exhausted = true;
+            } catch (SQLException sqle) {
+                throw new RuntimeException(sqle.getMessage(), sqle);
+            }
+            if (pending != null) {
+                action.accept(pending);
+                pending = null;
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package sql.reservoirs;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Clase auxiliar para la paginación por clave de los listados
+ * <p>
+ * Cada página se pide a partir de los valores de las columnas de orden
+ * de la última entrada mostrada, con la ID como última columna para
+ * que el orden no tenga empates; así la base de datos recorre el índice
+ * de esas columnas desde ese punto y el coste de cada página no depende
+ * de cuántas se hayan mostrado antes
+ *
+ * @author JuanGS
+ * @version 1.0
+ * @since 10-2026
+ */
+public final class Keyset {
+    /**
+     * Constructor privado de la clase para evitar instancias
+     */
+    private Keyset() {
+    }
+
+    /**
+     * Método para componer la condición de las entradas que van
+     * después de una dada en el orden de las columnas indicadas,
+     * en la forma {@code c1 >= ? AND ((c1 > ?) OR (c1 = ? AND c2 > ?) ...)};
+     * la primera comparación, sola, es la que permite a la base de datos
+     * empezar la lectura del índice en la última entrada mostrada,
+     * porque una disyunción no le sirve como clave de inicio
+     *
+     * @param columns Columnas de orden, la última de valores únicos
+     * @return Condición SQL con un parámetro por comparación
+     */
+    public static String after(String... columns) {
+        StringBuilder condition = new StringBuilder(columns.length > 1 ? columns[0] + " >= ? AND (" : "(");
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                condition.append(" OR ");
+            }
+            condition.append("(");
+            for (int j = 0; j < i; j++) {
+                condition.append(columns[j]).append(" = ? AND ");
+            }
+            condition.append(columns[i]).append(" > ?)");
+        }
+        return condition.append(")").toString();
+    }
+
+    /**
+     * Método para elegir las columnas de orden de un listado
+     *
+     * @param orders Columnas de orden de cada listado, según su número desde 1
+     * @param order  Número del orden pedido; fuera de rango, el primero
+     * @return Columnas de orden del listado
+     */
+    public static String[] orderBy(String[][] orders, int order) {
+        return orders[order >= 1 && order <= orders.length ? order - 1 : 0];
+    }
+
+    /**
+     * Método para componer la consulta de una página
+     *
+     * @param select  Consulta sin condición ni orden
+     * @param first   Verdadero si es la primera página, sin condición de clave
+     * @param columns Columnas de orden, la última de valores únicos
+     * @return Consulta SQL de la página, con la condición de clave
+     * si no es la primera y el número de filas como último parámetro
+     */
+    public static String page(String select, boolean first, String... columns) {
+        return String.format("%s%s ORDER BY %s FETCH FIRST ? ROWS ONLY",
+                select, first ? "" : " WHERE " + after(columns), String.join(", ", columns));
+    }
+
+    /**
+     * Método para ordenar los parámetros de una página según su consulta
+     *
+     * @param size   Número de entradas de la página
+     * @param values Valores de las columnas de orden de la última entrada
+     *               mostrada, o ninguno si es la primera página
+     * @return Parámetros de la consulta compuesta con
+     * {@link #page(String, boolean, String...)}, en su orden
+     */
+    public static Object[] params(int size, Object... values) {
+        List<Object> params = new ArrayList<>();
+        if (values.length > 1) {
+            params.add(values[0]);
+        }
+        for (int i = 0; i < values.length; i++) {
+            params.addAll(Arrays.asList(values).subList(0, i + 1));
+        }
+        params.add(size);
+        return params.toArray();
+    }
+
+    /**
+     * Método para asignar los parámetros de una página
+     *
+     * @param pStmt  Consulta preparada con {@link #page(String, boolean, String...)}
+     * @param size   Número de entradas de la página
+     * @param values Valores de las columnas de orden de la última entrada
+     *               mostrada, o ninguno si es la primera página
+     * @throws SQLException Si falla la asignación de algún parámetro
+     */
+    public static void bind(PreparedStatement pStmt, int size, Object... values) throws SQLException {
+        Object[] params = params(size, values);
+        for (int i = 0; i < params.length; i++) {
+            pStmt.setObject(i + 1, params[i]);
+        }
+    }
+}
@@ -8,6 +8,8 @@ import tables.User;
 
 import java.util.List;
 import java.util.ResourceBundle;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Interfaz principal de métodos de conexión a una base de datos
@@ -19,6 +21,12 @@ import java.util.ResourceBundle;
  */
 public interface LibDAO<T> {
 
+    /**
+     * Estado SQL con el que se rechaza una entrada repetida
+     * según un índice único de la tabla de datos
+     */
+    String DUPLICATE_KEY = "23505";
+
     /**
      * Método de conteo de entradas en la tabla de datos
      * asociada a la clase T
@@ -38,11 +46,12 @@ public interface LibDAO<T> {
      * @param currentUser Objeto de usuario con sus datos
      *                    de acceso a la base de datos
      * @param t           Objeto de la clase T, cuyos datos se introducen
-     *                    en la tabla de datos
+     *                    en la tabla de datos; su ID se ignora
      * @param rb          Recurso para la localización
      *                    del texto del programa
+     * @return ID generada por la base de datos para la nueva entrada
      */
-    void addDb(User currentUser, T t, ResourceBundle rb);
+    int addDb(User currentUser, T t, ResourceBundle rb);
 
     /**
      * Método de búsqueda de entradas en la tabla de datos
@@ -70,6 +79,57 @@ public interface LibDAO<T> {
      */
     List<T> searchDetailDB(User currentUser, ResourceBundle rb);
 
+    /**
+     * Método de búsqueda paginada de entradas en la tabla de datos
+     * asociada a la clase T, según el orden de los listados; cada página
+     * empieza tras la última entrada de la anterior
+     *
+     * @param currentUser Objeto de usuario con sus datos
+     *                    de acceso a la base de datos
+     * @param order       Número del orden del listado, 1 para la ID
+     * @param last        Última entrada de la página anterior,
+     *                    o nulo para la primera página
+     * @param size        Número máximo de entradas de la página
+     * @param details     Verdadero para añadir más detalles a las entradas
+     * @param rb          Recurso para la localización
+     *                    del texto del programa
+     * @return Lista de objetos de la clase T de la página,
+     * vacía si no quedan más entradas
+     */
+    List<T> searchPageDB(User currentUser, int order, T last, int size, boolean details, ResourceBundle rb);
+
+    /**
+     * Método de recorrido de todas las entradas en la tabla de datos
+     * asociada a la clase T sobre un cursor de solo avance, sin reunirlas
+     * en una lista; el flujo mantiene abierta su conexión y debe cerrarse
+     *
+     * @param currentUser Objeto de usuario con sus datos
+     *                    de acceso a la base de datos
+     * @param details     Verdadero para añadir más detalles a las entradas
+     * @param rb          Recurso para la localización
+     *                    del texto del programa
+     * @return Flujo de objetos de la clase T, construidos
+     * según se leen las filas de la tabla
+     */
+    Stream<T> streamDB(User currentUser, boolean details, ResourceBundle rb);
+
+    /**
+     * Método para entregar una a una todas las entradas en la tabla
+     * de datos asociada a la clase T, cerrando después el cursor
+     *
+     * @param currentUser Objeto de usuario con sus datos
+     *                    de acceso a la base de datos
+     * @param details     Verdadero para añadir más detalles a las entradas
+     * @param consumer    Acción a realizar con cada objeto de la clase T
+     * @param rb          Recurso para la localización
+     *                    del texto del programa
+     */
+    default void forEachDB(User currentUser, boolean details, Consumer<? super T> consumer, ResourceBundle rb) {
+        try (Stream<T> stream = streamDB(currentUser, details, rb)) {
+            stream.forEach(consumer);
+        }
+    }
+
     /**
      * Método para eliminar una entrada en la tabla de datos
      * asociada a la clase T
@@ -79,8 +139,7 @@ public interface LibDAO<T> {
      * @param ID          Identificación numérica de la entrada a eliminar
      * @param rb          Recurso para la localización
      *                    del texto del programa
-     * @return ID máxima actualizada de la tabla de datos
      */
-    int deleteDB(User currentUser, int ID, ResourceBundle rb);
+    void deleteDB(User currentUser, int ID, ResourceBundle rb);
 
 }
@@ -4,15 +4,28 @@
  */
 package sql.reservoirs;
 
+import sql.ConnectionPool;
+import sql.caches.NegativeCache;
+import sql.caches.TinyLfuCache;
+import sql.search.FullTextIndex;
+import sql.search.FuzzyIndex;
+import sql.search.PrefixTree;
+import sql.search.TrigramIndex;
 import tables.Book;
 import tables.User;
 import utils.Utils;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.ResourceBundle;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Clase principal de métodos de conexión a la base de datos
@@ -31,11 +44,6 @@ public final class LibDBBook implements LibDAO<Book> {
      * Lista de propiedades del programa
      */
     private final Properties configProps = Utils.readProperties();
-    /**
-     * URL de la base de datos utilizada por este código
-     */
-    private final String url = configProps.getProperty("database-url") + "/" +
-                               configProps.getProperty("database");
     /**
      * Ruta completa de la tabla de datos manejada en esta clase
      */
@@ -54,9 +62,88 @@ public final class LibDBBook implements LibDAO<Book> {
      */
     private final String field3 = configProps.getProperty("database-table-1-field-3");
     /**
-     * Campo 4 de la tabla de datos;
+     * Número de filas por bloque leído del servidor al recorrer la tabla
+     */
+    private final int fetchSize = Integer.parseInt(configProps.getProperty("database-fetch-size", "100"));
+    /**
+     * Caché de lectura de las entradas por su ID, invalidada
+     * por cada modificación hecha desde las clases DAO
+     */
+    private final TinyLfuCache<Integer, Book> cache = new TinyLfuCache<>(Long.parseLong(configProps.getProperty("database-cache-size", "256")),
+            book -> 1, Long.parseLong(configProps.getProperty("database-cache-expiry", "60000")));
+    /**
+     * Caché de las búsquedas por texto sin resultados, de corta duración
+     * y vaciada por cada alta hecha desde las clases DAO
+     */
+    private final NegativeCache<String> notFound = new NegativeCache<>(
+            Integer.parseInt(configProps.getProperty("database-cache-negative-size", "256")),
+            Long.parseLong(configProps.getProperty("database-cache-negative-expiry", "10000")));
+    /**
+     * Caché de los resultados de las búsquedas por texto, pesados por su número
+     * de entradas y vaciada por cada modificación hecha desde las clases DAO
+     */
+    private final TinyLfuCache<String, List<Book>> results = new TinyLfuCache<>(
+            Long.parseLong(configProps.getProperty("database-cache-results-size", "1000")),
+            List::size, Long.parseLong(configProps.getProperty("database-cache-expiry", "60000")));
+    /**
+     * Correspondencia de la tabla de datos con los objetos Libro; los listados
+     * se ordenan por ID, por título o por autor y título, acabando en la ID
+     * y con un índice con las mismas columnas
+     */
+    private final TableMapping<Book> mapping = new TableMapping<>(configProps, "database-table-1",
+            new String[]{"database-table-1-field-1", "database-table-1-field-2",
+                    "database-table-1-field-3", "database-table-1-field-4"},
+            new int[][]{{0}, {1, 0}, {2, 1, 0}},
+            rs -> new Book(rs.getInt(1),
+                    rs.getString(2),
+                    rs.getString(3),
+                    rs.getBoolean(4)),
+            book -> new Object[]{book.getID(), book.getTitle(), book.getAuthor(), book.isLent()});
+    /**
+     * Consulta de las columnas de texto de las entradas posteriores a una ID,
+     * para cargar los índices de búsqueda
+     */
+    private final String textSQL = String.format("SELECT %s, %s, %s FROM %s WHERE %s > ?",
+            field1, field2, field3, tableName, field1);
+    /**
+     * Instante del último contraste del índice de trigramas con la tabla
+     */
+    private long indexCheckedAt;
+    /**
+     * Índice de trigramas de las columnas de texto de la tabla
+     */
+    private final TrigramIndex index = new TrigramIndex(2,
+            Long.parseLong(configProps.getProperty("database-search-maxage", "600000")));
+    /**
+     * Árboles de prefijos de las columnas de texto de la tabla, para el autocompletado
+     */
+    private final PrefixTree[] prefixes = {new PrefixTree(), new PrefixTree()};
+    /**
+     * Índice de búsqueda tolerante a erratas de las columnas de texto de la tabla
+     */
+    private final FuzzyIndex fuzzy = new FuzzyIndex(2,
+            Integer.parseInt(configProps.getProperty("database-search-fuzzy-distance", "2")));
+    /**
+     * Número máximo de resultados de la búsqueda por relevancia
+     */
+    private final int ranked = Integer.parseInt(configProps.getProperty("database-search-ranked", "20"));
+    /**
+     * Índice de texto completo en disco de las columnas de título y autor
      */
-    private final String field4 = configProps.getProperty("database-table-1-field-4");
+    private FullTextIndex fullText;
+    /**
+     * Intervalo mínimo, en milisegundos, entre contrastes de los índices de búsqueda
+     * con el número de entradas e ID máxima de la tabla
+     */
+    private final long checkAge = Long.parseLong(configProps.getProperty("database-search-checkage", "1000"));
+    /**
+     * Instante del último contraste del índice de texto completo con la tabla; 0 para forzarlo
+     */
+    private long fullTextCheckedAt;
+    /**
+     * Número máximo de propuestas del autocompletado
+     */
+    private final int completions = Integer.parseInt(configProps.getProperty("database-search-completions", "10"));
 
     /**
      * Constructor privado de la clase
@@ -73,6 +160,61 @@ public final class LibDBBook implements LibDAO<Book> {
         return instance;
     }
 
+    /**
+     * Método getter de la caché de libros por ID
+     *
+     * @return Caché de lectura de la tabla de datos Libros
+     */
+    public TinyLfuCache<Integer, Book> getCache() {
+        return cache;
+    }
+
+    /**
+     * Método getter de la caché de búsquedas sin resultados
+     *
+     * @return Caché de textos buscados sin libros encontrados
+     */
+    public NegativeCache<String> getNotFound() {
+        return notFound;
+    }
+
+    /**
+     * Método getter de la caché de resultados de búsqueda
+     *
+     * @return Caché de listas de libros por texto buscado
+     */
+    public TinyLfuCache<String, List<Book>> getResults() {
+        return results;
+    }
+
+    /**
+     * Método para vaciar las cachés y el índice de trigramas, que se cargan
+     * de nuevo desde la base de datos activa en el siguiente uso,
+     * y forzar el contraste del índice de texto completo con la tabla
+     */
+    public void clearCaches() {
+        cache.clear();
+        results.clear();
+        notFound.clear();
+        synchronized (index) {
+            index.clear();
+            indexCheckedAt = 0;
+        }
+        synchronized (this) {
+            fullTextCheckedAt = 0;
+        }
+        LibDBStats.getInstance().invalidate();
+    }
+
+    /**
+     * Método getter de la correspondencia de la tabla de datos, para su copia en memoria
+     *
+     * @return Correspondencia de la tabla con los objetos Libro
+     */
+    TableMapping<Book> getMapping() {
+        return mapping;
+    }
+
     /**
      * Método para contabilizar las entradas de la tabla de datos Libros
      *
@@ -84,21 +226,8 @@ public final class LibDBBook implements LibDAO<Book> {
      */
     @Override
     public int[] countDB(User currentUser, ResourceBundle rb) {
-        String query1 = String.format("SELECT COUNT(*) FROM %s", tableName);
-        String query2 = String.format("SELECT %s FROM %s WHERE %s = (SELECT max(%s) FROM %s)",
-                field1, tableName, field1, field1, tableName);
-
-        try (Connection con = DriverManager.getConnection(url, currentUser.getName(), currentUser.getPassword());
-             Statement stmt1 = con.createStatement();
-             Statement stmt2 = con.createStatement();
-             ResultSet rs1 = stmt1.executeQuery(query1);
-             ResultSet rs2 = stmt2.executeQuery(query2)) {
-            rs1.next();
-            if (rs2.next()) {
-                return new int[]{rs1.getInt(1), rs2.getInt(1)};
-            } else {
-                return new int[]{rs1.getInt(1), 0};
-            }
+        try (Connection con = ConnectionPool.getInstance().getConnection(currentUser)) {
+            return mapping.count(con);
         } catch (SQLException sqle) {
             System.err.printf("  %s:\n%s\n", rb.getString("dao-general-error"), sqle.getMessage());
             return null;
@@ -113,35 +242,28 @@ public final class LibDBBook implements LibDAO<Book> {
      * @param book        Objeto Libro que registrar en la base de datos
      * @param rb          Recurso para la localización
      *                    del texto del programa
+     * @return ID generada por la base de datos para el nuevo libro
      */
     @Override
-    public void addDb(User currentUser, Book book, ResourceBundle rb) {
-        String query1 = String.format("SELECT * FROM %s WHERE LOWER(%s) = LOWER(?) AND LOWER(%s) = LOWER(?)",
-                tableName, field2, field3);
-        String query2 = String.format("INSERT INTO %s VALUES (?,?,?,?)", tableName);
-
-        try (Connection con = DriverManager.getConnection(url, currentUser.getName(), currentUser.getPassword());
-             PreparedStatement pStmt1 = con.prepareStatement(query1);
-             PreparedStatement pStmt2 = con.prepareStatement(query2)) {
-            pStmt1.setString(1, book.getTitle());
-            pStmt1.setString(2, book.getAuthor());
-            ResultSet rs = pStmt1.executeQuery();
-            if (rs.next()) {
-                rs.close();
-                throw new SQLException(rb.getString("dao-book-error-register"));
-            } else {
-                rs.close();
-            }
-
-            pStmt2.setInt(1, book.getID());
-            pStmt2.setString(2, book.getTitle());
-            pStmt2.setString(3, book.getAuthor());
-            pStmt2.setBoolean(4, book.isLent());
-            if (pStmt2.executeUpdate() == 1) {
+    public int addDb(User currentUser, Book book, ResourceBundle rb) {
+        try (Connection con = ConnectionPool.getInstance().getConnection(currentUser)) {
+            int idBook = mapping.insert(con, book);
+            if (idBook != -1) {
+                LibDBStats.getInstance().invalidate();
+                Replica.getInstance().expire();
+                cache.invalidate(idBook);
+                notFound.clear();
+                results.clear();
                 System.out.printf("  %s.\n", rb.getString("dao-book-add"));
             } else throw new SQLException(rb.getString("dao-book-error-add"));
+            synchronized (index) {
+                indexEntry(idBook, new String[]{book.getTitle(), book.getAuthor()});
+            }
+            updateFullText(idBook, book);
+            return idBook;
         } catch (SQLException sqle) {
-            throw new RuntimeException(sqle.getMessage());
+            throw new RuntimeException(DUPLICATE_KEY.equals(sqle.getSQLState()) ?
+                    rb.getString("dao-book-error-register") : sqle.getMessage());
         }
     }
 
@@ -156,23 +278,15 @@ public final class LibDBBook implements LibDAO<Book> {
      */
     @Override
     public List<Book> searchDB(User currentUser, ResourceBundle rb) {
-        String query = String.format("SELECT * FROM %s", tableName);
-        List<Book> listBook = new ArrayList<>();
-
-        try (Connection con = DriverManager.getConnection(url, currentUser.getName(), currentUser.getPassword());
-             Statement stmt = con.createStatement();
-             ResultSet rs = stmt.executeQuery(query)) {
-            while (rs.next()) {
-                listBook.add(new Book(rs.getInt(1),
-                        rs.getString(2),
-                        rs.getString(3),
-                        rs.getBoolean(4)));
-            }
+        if (Replica.getInstance().sync(currentUser)) {
+            return Replica.getInstance().books().list();
+        }
+        try (Connection con = ConnectionPool.getInstance().getConnection(currentUser)) {
+            return mapping.select(con);
         } catch (SQLException sqle) {
             System.err.printf("  %s:\n%s\n", rb.getString("dao-general-error"), sqle.getMessage());
+            return new ArrayList<>();
         }
-
-        return listBook;
     }
 
     /**
@@ -190,6 +304,54 @@ public final class LibDBBook implements LibDAO<Book> {
         return null;
     }
 
+    /**
+     * Método para recorrer todas las entradas de la tabla de datos Libros
+     * en orden de ID, sin reunirlas en una lista
+     *
+     * @param currentUser Objeto de usuario con sus datos
+     *                    de acceso a la base de datos
+     * @param details     Sin efecto al no poseer estos objetos mayores detalles
+     * @param rb          Recurso para la localización
+     *                    del texto del programa
+     * @return Flujo de objetos Libro, que debe cerrarse tras su uso
+     */
+    @Override
+    public Stream<Book> streamDB(User currentUser, boolean details, ResourceBundle rb) {
+        try {
+            return mapping.stream(ConnectionPool.getInstance().getConnection(currentUser), fetchSize);
+        } catch (SQLException sqle) {
+            throw new RuntimeException(String.format("  %s:\n%s\n", rb.getString("dao-general-error"), sqle.getMessage()));
+        }
+    }
+
+    /**
+     * Método para extraer una página de entradas de la tabla de datos Libros,
+     * ordenadas por ID, por título o por autor y título
+     *
+     * @param currentUser Objeto de usuario con sus datos
+     *                    de acceso a la base de datos
+     * @param order       Número del orden del listado: 1 ID, 2 título, 3 autor
+     * @param last        Último libro de la página anterior,
+     *                    o nulo para la primera página
+     * @param size        Número máximo de entradas de la página
+     * @param details     Sin efecto al no poseer estos objetos mayores detalles
+     * @param rb          Recurso para la localización
+     *                    del texto del programa
+     * @return Lista de objetos Libro de la página
+     */
+    @Override
+    public List<Book> searchPageDB(User currentUser, int order, Book last, int size, boolean details, ResourceBundle rb) {
+        if (!details && Replica.getInstance().sync(currentUser)) {
+            return Replica.getInstance().books().page(order, last, size);
+        }
+        try (Connection con = ConnectionPool.getInstance().getConnection(currentUser)) {
+            return mapping.page(con, order, last, size);
+        } catch (SQLException sqle) {
+            System.err.printf("  %s:\n%s\n", rb.getString("dao-general-error"), sqle.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
     /**
      * Método para extraer entradas de la tabla de datos Libros
      * según un fragmento de texto dado para buscar en una de las
@@ -198,29 +360,31 @@ public final class LibDBBook implements LibDAO<Book> {
      * @param currentUser Objeto de usuario con sus datos
      *                    de acceso a la base de datos
      * @param opt         Número para indicar la columna de la tabla donde buscar
-     * @param seed        Fragmento de texto que buscar en las entradas de la tabla
+     * @param seed        Fragmento de texto que buscar en las entradas de la tabla;
+     *                    si empieza por '~' se buscan palabras parecidas
      * @param rb          Recurso para la localización
      *                    del texto del programa
-     * @return Lista de objetos Libro que hayan salido de la búsqueda
+     * @return Lista de objetos Libro que hayan salido de la búsqueda, vacía si no hay ninguno
      */
     public List<Book> searchTB(User currentUser, int opt, String seed, ResourceBundle rb) {
-        String query = String.format("SELECT * FROM %s WHERE LOWER(%s) LIKE LOWER(?)",
-                tableName, opt == 2 ? field2 : field3);
-
-        try (Connection con = DriverManager.getConnection(url, currentUser.getName(), currentUser.getPassword());
-             PreparedStatement pStmt = con.prepareStatement(query)) {
-            pStmt.setString(1, "%" + seed + "%");
-            List<Book> listBooks = new ArrayList<>();
-            ResultSet rs = pStmt.executeQuery();
-            while (rs.next()) {
-                listBooks.add(new Book(rs.getInt(1),
-                        rs.getString(2),
-                        rs.getString(3),
-                        rs.getBoolean(4)));
-            }
-            rs.close();
-            if (listBooks.isEmpty()) {
-                throw new SQLException(rb.getString("dao-book-error-search-1"));
+        int field = opt == 2 ? 0 : 1;
+        String key = field + ":" + seed;
+        if (notFound.contains(key)) {
+            return List.of();
+        }
+        long version = notFound.version();
+        try {
+            List<Book> listBooks = results.get(key, k -> {
+                try (Connection con = ConnectionPool.getInstance().getConnection(currentUser)) {
+                    TrigramIndex trigrams = index(con);
+                    int[] IDs = seed.startsWith("~") ? fuzzy.search(field, seed.substring(1)) : trigrams.search(field, seed);
+                    List<Book> books = mapping.select(con, IDs);
+                    return books.isEmpty() ? null : List.copyOf(books);
+                }
+            });
+            if (listBooks == null) {
+                notFound.add(key, version);
+                return List.of();
             }
             return listBooks;
         } catch (SQLException sqle) {
@@ -228,6 +392,231 @@ public final class LibDBBook implements LibDAO<Book> {
         }
     }
 
+    /**
+     * Método para extraer las entradas de la tabla de datos Libros
+     * más relevantes para un texto, buscado en el título y el autor
+     *
+     * @param currentUser Objeto de usuario con sus datos
+     *                    de acceso a la base de datos
+     * @param query       Texto que buscar en las entradas de la tabla
+     * @param rb          Recurso para la localización
+     *                    del texto del programa
+     * @return Lista de objetos Libro, del más al menos relevante, vacía si no hay ninguno
+     */
+    public List<Book> searchRankedTB(User currentUser, String query, ResourceBundle rb) {
+        String key = "ranked:" + query;
+        if (notFound.contains(key)) {
+            return List.of();
+        }
+        long version = notFound.version();
+        try {
+            List<Book> listBooks = results.get(key, k -> {
+                try (Connection con = ConnectionPool.getInstance().getConnection(currentUser)) {
+                    int[] IDs = fullText(con).search(query, ranked);
+                    Map<Integer, Book> books = mapping.select(con, IDs).stream().collect(Collectors.toMap(Book::getID, book -> book));
+                    List<Book> ordered = new ArrayList<>();
+                    for (int ID : IDs) {
+                        if (books.containsKey(ID)) {
+                            ordered.add(books.get(ID));
+                        }
+                    }
+                    return ordered.isEmpty() ? null : List.copyOf(ordered);
+                } catch (IOException ioe) {
+                    throw new SQLException(ioe.getMessage(), ioe);
+                }
+            });
+            if (listBooks == null) {
+                notFound.add(key, version);
+                return List.of();
+            }
+            return listBooks;
+        } catch (SQLException e) {
+            throw new RuntimeException(String.format("  %s:\n%s\n", rb.getString("dao-general-error"), e.getMessage()));
+        }
+    }
+
+    /**
+     * Método para obtener el índice de texto completo, abriéndolo
+     * de disco la primera vez; pasado el intervalo mínimo se contrasta
+     * con el número de entradas e ID máxima de la tabla, y si no coinciden
+     * se añaden las entradas posteriores a su ID máxima, rehaciéndolo
+     * desde la tabla solo si sigue sin coincidir
+     *
+     * @param con Conexión con la base de datos
+     * @return Índice de texto completo
+     * @throws SQLException Excepción en la lectura de la tabla
+     * @throws IOException  Excepción en el acceso al índice
+     */
+    private synchronized FullTextIndex fullText(Connection con) throws SQLException, IOException {
+        openFullText();
+        long now = System.currentTimeMillis();
+        if (now - fullTextCheckedAt > checkAge) {
+            int[] count = mapping.count(con);
+            if (count[0] != fullText.size() || count[1] != fullText.maxID()) {
+                fullText.addAll(texts(con, fullText.maxID()));
+                if (count[0] != fullText.size() || count[1] != fullText.maxID()) {
+                    fullText.rebuild(texts(con, 0));
+                }
+            }
+            fullTextCheckedAt = now;
+        }
+        return fullText;
+    }
+
+    /**
+     * Método para abrir de disco el índice de texto completo si aún no lo está
+     *
+     * @throws IOException Excepción en el acceso al índice
+     */
+    private void openFullText() throws IOException {
+        if (fullText == null) {
+            fullText = new FullTextIndex(Paths.get(configProps.getProperty("database-search-dir", "search"), tableName),
+                    new int[]{2, 1}, Integer.parseInt(configProps.getProperty("database-search-flush", "1000")));
+        }
+    }
+
+    /**
+     * Método para trasladar al índice de texto completo, abriéndolo si
+     * no lo está, el alta o la baja de una entrada; si falla, el índice
+     * se contrasta de nuevo con la tabla en la siguiente búsqueda
+     *
+     * @param ID   Identificación numérica de la entrada
+     * @param book Objeto Libro dado de alta, o nulo si es una baja
+     */
+    private synchronized void updateFullText(int ID, Book book) {
+        try {
+            openFullText();
+            if (book == null) {
+                fullText.delete(ID);
+            } else {
+                fullText.add(ID, book.getTitle(), book.getAuthor());
+            }
+        } catch (IOException ioe) {
+            fullTextCheckedAt = 0;
+        }
+    }
+
+    /**
+     * Método para proponer los textos de una columna de la tabla
+     * de datos Libros que empiezan por un prefijo dado
+     *
+     * @param currentUser Objeto de usuario con sus datos
+     *                    de acceso a la base de datos
+     * @param opt         Número para indicar la columna de la tabla donde buscar
+     * @param prefix      Prefijo que buscar en las entradas de la tabla
+     * @param rb          Recurso para la localización
+     *                    del texto del programa
+     * @return Lista de textos propuestos, en orden alfabético
+     */
+    public List<String> completeTB(User currentUser, int opt, String prefix, ResourceBundle rb) {
+        try (Connection con = ConnectionPool.getInstance().getConnection(currentUser)) {
+            index(con);
+            return prefixes[opt == 2 ? 0 : 1].complete(prefix, completions);
+        } catch (SQLException sqle) {
+            System.err.printf("  %s:\n%s\n", rb.getString("dao-general-error"), sqle.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Método para cargar por adelantado los índices de búsqueda
+     * de la tabla de datos Libros, abriendo también el índice
+     * de texto completo y poniéndolo al día con la tabla
+     *
+     * @param currentUser Objeto de usuario con sus datos
+     *                    de acceso a la base de datos
+     * @param rb          Recurso para la localización
+     *                    del texto del programa
+     */
+    public void loadIndex(User currentUser, ResourceBundle rb) {
+        try (Connection con = ConnectionPool.getInstance().getConnection(currentUser)) {
+            index(con);
+            fullText(con);
+        } catch (SQLException | IOException e) {
+            System.err.printf("  %s:\n%s\n", rb.getString("dao-general-error"), e.getMessage());
+        }
+    }
+
+    /**
+     * Método para obtener el índice de trigramas de la tabla, junto con
+     * los árboles de prefijos y el índice de erratas, cargándolos
+     * de la base de datos si no lo están o han caducado; como mucho una vez
+     * por intervalo mínimo se contrastan con el número de entradas e ID máxima
+     * de la tabla, y si no coinciden se añaden las entradas posteriores a la ID
+     * máxima del índice, recargándolos completos solo si siguen sin coincidir
+     *
+     * @param con Conexión con la base de datos
+     * @return Índice de trigramas actualizado
+     * @throws SQLException Excepción en la lectura de la tabla
+     */
+    private TrigramIndex index(Connection con) throws SQLException {
+        synchronized (index) {
+            long now = System.currentTimeMillis();
+            boolean stale = index.isStale();
+            if (!stale && now - indexCheckedAt > checkAge) {
+                int[] count = mapping.count(con);
+                if (!index.matches(count[0], count[1])) {
+// IDs are never reused, so the entries added from other desks are the ones above the indexed maximum
+                    texts(con, index.maxID()).forEach(this::indexEntry);
+                    stale = !index.matches(count[0], count[1]);
+                }
+            }
+            indexCheckedAt = now;
+            if (stale) {
+                Map<Integer, String[]> entries = texts(con, 0);
+                index.load(entries);
+                fuzzy.load(entries);
+                for (int i = 0; i < prefixes.length; i++) {
+                    int field = i;
+                    prefixes[i].load(entries.values().stream().map(texts -> texts[field]).collect(Collectors.toList()));
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Método para añadir una entrada al índice de trigramas,
+     * al índice de erratas y a los árboles de prefijos; sin efecto
+     * si ya está indexada, como cuando una carga desde otro hilo
+     * ha leído la entrada antes de que su alta llegue a los índices.
+     * Debe llamarse con el cerrojo del índice de trigramas
+     *
+     * @param ID     Identificación numérica de la entrada
+     * @param fields Título y autor de la entrada
+     */
+    private void indexEntry(int ID, String[] fields) {
+        if (index.contains(ID)) {
+            return;
+        }
+        index.put(ID, fields);
+        fuzzy.put(ID, fields);
+        prefixes[0].add(fields[0]);
+        prefixes[1].add(fields[1]);
+    }
+
+    /**
+     * Método para leer las columnas de texto de las entradas
+     * de la tabla de datos Libros posteriores a una ID
+     *
+     * @param con    Conexión con la base de datos
+     * @param fromID ID a partir de la cual leer, sin incluirla; 0 para toda la tabla
+     * @return Título y autor de cada entrada, en orden de ID
+     * @throws SQLException Excepción en la lectura de la tabla
+     */
+    private Map<Integer, String[]> texts(Connection con, int fromID) throws SQLException {
+        Map<Integer, String[]> entries = new TreeMap<>();
+        try (PreparedStatement pStmt = con.prepareStatement(textSQL)) {
+            pStmt.setInt(1, fromID);
+            try (ResultSet rs = pStmt.executeQuery()) {
+                while (rs.next()) {
+                    entries.put(rs.getInt(1), new String[]{rs.getString(2), rs.getString(3)});
+                }
+            }
+        }
+        return entries;
+    }
+
     /**
      * Método para extraer entradas de la tabla de datos Libros
      * según su identificación numérica ID
@@ -240,23 +629,22 @@ public final class LibDBBook implements LibDAO<Book> {
      * @return Objeto Libro con los datos de la entrada encontrada
      */
     public Book searchTB(User currentUser, int ID, ResourceBundle rb) {
-        String query = String.format("SELECT * FROM %s WHERE %s = ?", tableName, field1);
-
-        try (Connection con = DriverManager.getConnection(url, currentUser.getName(), currentUser.getPassword());
-             PreparedStatement pStmt = con.prepareStatement(query)) {
-            pStmt.setInt(1, ID);
-            ResultSet rs = pStmt.executeQuery();
-            if (rs.next()) {
-                Book newBook = new Book(ID,
-                        rs.getString(2),
-                        rs.getString(3),
-                        rs.getBoolean(4));
-                rs.close();
-                return newBook;
+        try {
+            Book book;
+            if (Replica.getInstance().sync(currentUser)) {
+                book = Replica.getInstance().books().get(ID);
             } else {
-                rs.close();
+                book = cache.get(ID, id -> {
+                    try (Connection con = ConnectionPool.getInstance().getConnection(currentUser)) {
+                        List<Book> books = mapping.select(con, id);
+                        return books.isEmpty() ? null : books.get(0);
+                    }
+                });
+            }
+            if (book == null) {
                 throw new SQLException(rb.getString("dao-book-error-search-2"));
             }
+            return book;
         } catch (SQLException sqle) {
             throw new RuntimeException(String.format("  %s:\n%s\n", rb.getString("dao-general-error"), sqle.getMessage()));
         }
@@ -271,44 +659,32 @@ public final class LibDBBook implements LibDAO<Book> {
      * @param ID          Identificación numérica de la entrada a eliminar
      * @param rb          Recurso para la localización
      *                    del texto del programa
-     * @return ID máxima tras la eliminación de la entrada
      */
     @Override
-    public int deleteDB(User currentUser, int ID, ResourceBundle rb) {
-        String query1 = String.format("SELECT %s FROM %s WHERE %s = ?", field4, tableName, field1);
-        String query2 = String.format("DELETE FROM %s WHERE %s = ?", tableName, field1);
-        String query3 = String.format("SELECT %s FROM %s WHERE %s = (SELECT max(%s) FROM %s)",
-                field1, tableName, field1, field1, tableName);
-
-        try (Connection con = DriverManager.getConnection(url, currentUser.getName(), currentUser.getPassword());
-             PreparedStatement pStmt1 = con.prepareStatement(query1);
-             PreparedStatement pStmt2 = con.prepareStatement(query2);
-             Statement stmt3 = con.createStatement()) {
-            pStmt1.setInt(1, ID);
-            ResultSet rs = pStmt1.executeQuery();
-            if (rs.next()) {
-                if (rs.getBoolean(1)) {
-                    rs.close();
-                    throw new SQLException(rb.getString("dao-book-error-delete"));
-                }
-                rs.close();
-            } else {
-                rs.close();
+    public void deleteDB(User currentUser, int ID, ResourceBundle rb) {
+        try (Connection con = ConnectionPool.getInstance().getConnection(currentUser)) {
+            List<Book> books = mapping.select(con, ID);
+            if (books.isEmpty()) {
                 throw new SQLException(rb.getString("dao-book-error-search-2"));
+            } else if (books.get(0).isLent()) {
+                throw new SQLException(rb.getString("dao-book-error-delete"));
             }
 
-            pStmt2.setInt(1, ID);
-            if (pStmt2.executeUpdate() == 1) {
-                System.out.printf("  %s.\n", rb.getString("dao-book-delete"));
-                ResultSet rs3 = stmt3.executeQuery(query3);
-                if (rs3.next()) {
-                    int maxIDLib = rs3.getInt(1);
-                    rs3.close();
-                    return maxIDLib;
-                } else {
-                    rs3.close();
-                    return 0;
+            if (mapping.delete(con, ID)) {
+                cache.invalidate(ID);
+                results.clear();
+                LibDBStats.getInstance().invalidate();
+                Replica.getInstance().expire();
+                synchronized (index) {
+                    String[] texts = index.remove(ID);
+                    fuzzy.remove(ID);
+                    if (texts != null) {
+                        prefixes[0].remove(texts[0]);
+                        prefixes[1].remove(texts[1]);
+                    }
                 }
+                updateFullText(ID, null);
+                System.out.printf("  %s.\n", rb.getString("dao-book-delete"));
             } else {
                 throw new SQLException();
             }
@@ -4,6 +4,8 @@
  */
 package sql.reservoirs;
 
+import sql.ConnectionPool;
+import sql.caches.TinyLfuCache;
 import tables.Book;
 import tables.Loan;
 import tables.Member;
@@ -13,9 +15,13 @@ import utils.Utils;
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Properties;
 import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Clase principal de métodos de conexión a la base de datos
@@ -34,11 +40,6 @@ public class LibDBLoan implements LibDAO<Loan> {
      * Lista de propiedades del programa
      */
     private final Properties configProps = Utils.readProperties();
-    /**
-     * URL de la base de datos utilizada por este código
-     */
-    private final String url = configProps.getProperty("database-url") + "/" +
-                               configProps.getProperty("database");
     /**
      * Ruta completa de la tabla de datos manejada en esta clase
      */
@@ -60,11 +61,101 @@ public class LibDBLoan implements LibDAO<Loan> {
      * Campo 3 de la tabla de datos;
      */
     private final String field4 = configProps.getProperty("database-table-3-field-4");
+    /**
+     * Número de filas por bloque leído del servidor al recorrer la tabla
+     */
+    private final int fetchSize = Integer.parseInt(configProps.getProperty("database-fetch-size", "100"));
+    /**
+     * Caché de los resultados de las búsquedas por columna, pesados por su número
+     * de entradas y vaciada por cada modificación hecha desde las clases DAO
+     */
+    private final TinyLfuCache<String, List<Loan>> results = new TinyLfuCache<>(
+            Long.parseLong(configProps.getProperty("database-cache-results-size", "1000")),
+            List::size, Long.parseLong(configProps.getProperty("database-cache-expiry", "60000")));
+    /**
+     * Correspondencia de la tabla de datos con los objetos Préstamo; los listados
+     * se ordenan por ID, por socio, por libro o por fecha, acabando en la ID
+     * y con un índice con las mismas columnas
+     */
+    private final TableMapping<Loan> mapping = new TableMapping<>(configProps, "database-table-3",
+            new String[]{"database-table-3-field-1", "database-table-2-field-1",
+                    "database-table-1-field-1", "database-table-3-field-4"},
+            new int[][]{{0}, {1, 0}, {2, 0}, {3, 0}},
+            rs -> readLoan(rs, false),
+            loan -> new Object[]{loan.getID(), loan.getIdMember(), loan.getIdBook(), Date.valueOf(loan.getDateLoan())});
+    /**
+     * Consulta de los préstamos junto a los datos de su socio y su libro, sin orden
+     */
+    private final String detailSQL = String.format("SELECT l.%s, l.%s, l.%s, l.%s, m.%s, m.%s, b.%s, b.%s, b.%s FROM %s l " +
+                                                   "JOIN %s m ON l.%s = m.%s JOIN %s b ON l.%s = b.%s",
+            field1, field2, field3, field4,
+            configProps.getProperty("database-table-2-field-2"), configProps.getProperty("database-table-2-field-3"),
+            configProps.getProperty("database-table-1-field-2"), configProps.getProperty("database-table-1-field-3"),
+            configProps.getProperty("database-table-1-field-4"), tableName,
+            configProps.getProperty("database-name") + "." + configProps.getProperty("database-table-2"), field2, field2,
+            configProps.getProperty("database-name") + "." + configProps.getProperty("database-table-1"), field3, field3);
+    /**
+     * Consultas de la primera página y de las siguientes de los listados
+     * con detalles, según su número de orden desde 1
+     */
+    private final String[][] detailPageSQL = new String[4][];
+    /**
+     * Consultas de los préstamos con un valor dado en la ID, el socio,
+     * el libro o la fecha, ordenados por ID
+     */
+    private final String[] searchSQL = new String[4];
+    /**
+     * Actualización para sumar un préstamo al contador de un socio
+     * solo si no ha alcanzado el límite de préstamos
+     */
+    private final String checkoutSQL = String.format("UPDATE %s SET %s = %s + 1 WHERE %s = ? AND %s < ?",
+            configProps.getProperty("database-name") + "." + configProps.getProperty("database-table-2"),
+            configProps.getProperty("database-table-2-field-6"), configProps.getProperty("database-table-2-field-6"),
+            field2, configProps.getProperty("database-table-2-field-6"));
+    /**
+     * Consulta del contador de préstamos de un socio
+     */
+    private final String memberSQL = String.format("SELECT %s FROM %s WHERE %s = ?",
+            configProps.getProperty("database-table-2-field-6"),
+            configProps.getProperty("database-name") + "." + configProps.getProperty("database-table-2"), field2);
+    /**
+     * Actualización para restar un préstamo al contador del socio de un préstamo
+     */
+    private final String releaseSQL = String.format("UPDATE %s SET %s = %s - 1 WHERE %s = (SELECT %s FROM %s WHERE %s = ?) AND %s > 0",
+            configProps.getProperty("database-name") + "." + configProps.getProperty("database-table-2"),
+            configProps.getProperty("database-table-2-field-6"), configProps.getProperty("database-table-2-field-6"),
+            field2, field2, tableName, field1, configProps.getProperty("database-table-2-field-6"));
+    /**
+     * Actualización para marcar un libro como prestado si no lo estaba ya
+     */
+    private final String lendSQL = String.format("UPDATE %s SET %s = TRUE WHERE %s = ? AND %s = FALSE",
+            configProps.getProperty("database-name") + "." + configProps.getProperty("database-table-1"),
+            configProps.getProperty("database-table-1-field-4"), field3,
+            configProps.getProperty("database-table-1-field-4"));
+    /**
+     * Consulta del estado de préstamo de un libro
+     */
+    private final String lentSQL = String.format("SELECT %s FROM %s WHERE %s = ?",
+            configProps.getProperty("database-table-1-field-4"),
+            configProps.getProperty("database-name") + "." + configProps.getProperty("database-table-1"), field3);
+    /**
+     * Actualización para devolver a disponible el libro de un préstamo
+     */
+    private final String returnSQL = String.format("UPDATE %s SET %s = FALSE WHERE %s = (SELECT %s FROM %s WHERE %s = ?) AND %s = TRUE",
+            configProps.getProperty("database-name") + "." + configProps.getProperty("database-table-1"),
+            configProps.getProperty("database-table-1-field-4"), field3, field3, tableName, field1,
+            configProps.getProperty("database-table-1-field-4"));
 
     /**
      * Constructor privado de la clase
      */
     private LibDBLoan() {
+        for (int i = 0; i < detailPageSQL.length; i++) {
+            String[] order = Arrays.stream(mapping.getOrder(i + 1)).map(column -> "l." + column).toArray(String[]::new);
+            detailPageSQL[i] = new String[]{Keyset.page(detailSQL, true, order), Keyset.page(detailSQL, false, order)};
+            searchSQL[i] = String.format("SELECT %s, %s, %s, %s FROM %s WHERE %s = ? ORDER BY %s",
+                    field1, field2, field3, field4, tableName, mapping.getColumn(i), field1);
+        }
     }
 
     /**
@@ -76,6 +167,33 @@ public class LibDBLoan implements LibDAO<Loan> {
         return instance;
     }
 
+    /**
+     * Método getter de la caché de resultados de búsqueda
+     *
+     * @return Caché de listas de préstamos por valor buscado
+     */
+    public TinyLfuCache<String, List<Loan>> getResults() {
+        return results;
+    }
+
+    /**
+     * Método para vaciar la caché de resultados de búsqueda, que se carga
+     * de nuevo desde la base de datos activa en el siguiente uso
+     */
+    public void clearCaches() {
+        results.clear();
+        LibDBStats.getInstance().invalidate();
+    }
+
+    /**
+     * Método getter de la correspondencia de la tabla de datos, para su copia en memoria
+     *
+     * @return Correspondencia de la tabla con los objetos Préstamo
+     */
+    TableMapping<Loan> getMapping() {
+        return mapping;
+    }
+
     /**
      * Método para contabilizar las entradas de la tabla de datos Préstamos
      *
@@ -87,21 +205,8 @@ public class LibDBLoan implements LibDAO<Loan> {
      */
     @Override
     public int[] countDB(User currentUser, ResourceBundle rb) {
-        String query1 = String.format("SELECT COUNT(*) FROM %s", tableName);
-        String query2 = String.format("SELECT %s FROM %s WHERE %s = (SELECT max(%s) FROM %s)",
-                field1, tableName, field1, field1, tableName);
-
-        try (Connection con = DriverManager.getConnection(url, currentUser.getName(), currentUser.getPassword());
-             Statement stmt1 = con.createStatement();
-             Statement stmt2 = con.createStatement();
-             ResultSet rs1 = stmt1.executeQuery(query1);
-             ResultSet rs2 = stmt2.executeQuery(query2)) {
-            rs1.next();
-            if (rs2.next()) {
-                return new int[]{rs1.getInt(1), rs2.getInt(1)};
-            } else {
-                return new int[]{rs1.getInt(1), 0};
-            }
+        try (Connection con = ConnectionPool.getInstance().getConnection(currentUser)) {
+            return mapping.count(con);
         } catch (SQLException sqle) {
             System.err.printf("  %s\n%s\n", rb.getString("dao-general-error"), sqle.getMessage());
             return null;
@@ -109,68 +214,64 @@ public class LibDBLoan implements LibDAO<Loan> {
     }
 
     /**
-     * Método para introducir una nueva entrada en la tabla de datos Préstamos
+     * Método para introducir una nueva entrada en la tabla de datos Préstamos;
+     * el libro se marca como prestado solo si no lo estaba ya, y el préstamo
+     * se registra en la misma transacción
      *
      * @param currentUser Objeto de usuario con sus datos
      *                    de acceso a la base de datos
      * @param loan        Objeto Préstamo que registrar en la base de datos
      * @param rb          Recurso para la localización
      *                    del texto del programa
+     * @return ID generada por la base de datos para el nuevo préstamo
      */
     @Override
-    public void addDb(User currentUser, Loan loan, ResourceBundle rb) {
-        String query1 = String.format("SELECT COUNT(*) FROM %s WHERE %s = ?", tableName, field2);
-        String query2 = String.format("SELECT %s FROM %s WHERE %s = ?",
-                configProps.getProperty("database-table-1-field-4"),
-                configProps.getProperty("database-name") + "." + configProps.getProperty("database-table-1"), field3);
-        String query3 = String.format("UPDATE %s SET %s = ? WHERE %s = ?",
-                configProps.getProperty("database-name") + "." + configProps.getProperty("database-table-1"),
-                configProps.getProperty("database-table-1-field-4"), field3);
-        String query4 = String.format("INSERT INTO %s VALUES (?,?,?,?)", tableName);
-
-        try (Connection con = DriverManager.getConnection(url, currentUser.getName(), currentUser.getPassword());
-             PreparedStatement pStmt1 = con.prepareStatement(query1);
-             PreparedStatement pStmt2 = con.prepareStatement(query2);
-             PreparedStatement pStmt3 = con.prepareStatement(query3);
-             PreparedStatement pStmt4 = con.prepareStatement(query4)) {
-            pStmt1.setInt(1, loan.getIdMember());
-            ResultSet rs = pStmt1.executeQuery();
-            rs.next();
-            if (rs.getInt(1) >= Integer.parseInt(configProps.getProperty("database-table-2-maxloan"))) {
-                rs.close();
-                throw new SQLException(rb.getString("dao-loan-error-limit"));
-            }
-            rs.close();
+    public int addDb(User currentUser, Loan loan, ResourceBundle rb) {
+        try (Connection con = ConnectionPool.getInstance().getConnection(currentUser);
+             PreparedStatement pStmt1 = con.prepareStatement(checkoutSQL);
+             PreparedStatement pStmt2 = con.prepareStatement(lendSQL)) {
+            con.setAutoCommit(false);
+            try {
+                pStmt1.setInt(1, loan.getIdMember());
+                pStmt1.setInt(2, Integer.parseInt(configProps.getProperty("database-table-2-maxloan")));
+                if (pStmt1.executeUpdate() != 1) {
+                    try (PreparedStatement pStmt3 = con.prepareStatement(memberSQL)) {
+                        pStmt3.setInt(1, loan.getIdMember());
+                        ResultSet rs3 = pStmt3.executeQuery();
+                        boolean exists = rs3.next();
+                        rs3.close();
+                        throw new SQLException(rb.getString(exists ? "dao-loan-error-limit" : "dao-loan-error-member"));
+                    }
+                }
 
-            pStmt2.setInt(1, loan.getIdBook());
-            ResultSet rs2 = pStmt2.executeQuery();
-            if (rs2.next()) {
-                if (rs2.getBoolean(1)) {
-                    rs2.close();
-                    throw new SQLException(rb.getString("dao-loan-error-lent"));
+                pStmt2.setInt(1, loan.getIdBook());
+                if (pStmt2.executeUpdate() != 1) {
+                    try (PreparedStatement pStmt3 = con.prepareStatement(lentSQL)) {
+                        pStmt3.setInt(1, loan.getIdBook());
+                        ResultSet rs3 = pStmt3.executeQuery();
+                        boolean exists = rs3.next();
+                        rs3.close();
+                        throw new SQLException(rb.getString(exists ? "dao-loan-error-lent" : "dao-loan-error-exist"));
+                    }
                 }
-            } else {
-                rs2.close();
-                throw new SQLException(rb.getString(rb.getString("dao-loan-error-exist")));
-            }
-            rs2.close();
 
-            pStmt3.setBoolean(1, true);
-            pStmt3.setInt(2, loan.getIdBook());
-            if (pStmt3.executeUpdate() > 1) {
-                pStmt3.setBoolean(1, false);
-                pStmt3.executeUpdate();
-                throw new SQLException(rb.getString("dao-loan-error-location-book"));
-            }
+                int idLoan = mapping.insert(con, loan);
+                if (idLoan == -1) {
+                    throw new SQLException(rb.getString("dao-loan-error-add"));
+                }
 
-            pStmt4.setInt(1, loan.getID());
-            pStmt4.setInt(2, loan.getIdMember());
-            pStmt4.setInt(3, loan.getIdBook());
-            pStmt4.setDate(4, Date.valueOf(loan.getDateLoan()));
-            if (pStmt4.executeUpdate() == 1) {
+                con.commit();
+                LibDBStats.getInstance().invalidate();
+                Replica.getInstance().expire();
+                LibDBBook.getInstance().getCache().invalidate(loan.getIdBook());
+                LibDBBook.getInstance().getResults().clear();
+                results.clear();
                 System.out.printf("  %s.\n", rb.getString("dao-loan-add"));
-            } else throw new SQLException(rb.getString("dao-loan-error-add"));
-
+                return idLoan;
+            } catch (SQLException sqle) {
+                con.rollback();
+                throw sqle;
+            }
         } catch (SQLException sqle) {
             throw new RuntimeException(sqle.getMessage());
         }
@@ -187,17 +288,36 @@ public class LibDBLoan implements LibDAO<Loan> {
      */
     @Override
     public List<Loan> searchDB(User currentUser, ResourceBundle rb) {
-        String query = String.format("SELECT * FROM %s", tableName);
+        if (Replica.getInstance().sync(currentUser)) {
+            return Replica.getInstance().loans().list();
+        }
+        try (Connection con = ConnectionPool.getInstance().getConnection(currentUser)) {
+            return mapping.select(con);
+        } catch (SQLException sqle) {
+            System.err.printf("  %s\n%s\n", rb.getString("dao-general-error"), sqle.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Método para extraer todas las entradas de la tabla de datos Préstamos,
+     * junto a detalles de libro y socio asociados, en una sola consulta
+     *
+     * @param currentUser Objeto de usuario con sus datos
+     *                    de acceso a la base de datos
+     * @param rb          Recurso para la localización
+     *                    del texto del programa
+     * @return Lista de objetos Préstamo por cada entrada de la tabla de datos
+     */
+    @Override
+    public List<Loan> searchDetailDB(User currentUser, ResourceBundle rb) {
         List<Loan> listLoan = new ArrayList<>();
 
-        try (Connection con = DriverManager.getConnection(url, currentUser.getName(), currentUser.getPassword());
-             Statement stmt = con.createStatement();
-             ResultSet rs = stmt.executeQuery(query)) {
+        try (Connection con = ConnectionPool.getInstance().getConnection(currentUser);
+             PreparedStatement pStmt = con.prepareStatement(detailSQL);
+             ResultSet rs = pStmt.executeQuery()) {
             while (rs.next()) {
-                listLoan.add(new Loan(rs.getInt(1),
-                        rs.getInt(2),
-                        rs.getInt(3),
-                        rs.getDate(4).toLocalDate()));
+                listLoan.add(readLoan(rs, true));
             }
         } catch (SQLException sqle) {
             System.err.printf("  %s\n%s\n", rb.getString("dao-general-error"), sqle.getMessage());
@@ -207,47 +327,65 @@ public class LibDBLoan implements LibDAO<Loan> {
     }
 
     /**
-     * Método para extraer todas las entradas de la tabla de datos Préstamos,
-     * junto a detalles de libro y socio asociados
+     * Método para recorrer todas las entradas de la tabla de datos Préstamos
+     * en orden de ID, sin reunirlas en una lista
      *
      * @param currentUser Objeto de usuario con sus datos
      *                    de acceso a la base de datos
+     * @param details     Verdadero para añadir los detalles de libro y socio
      * @param rb          Recurso para la localización
      *                    del texto del programa
-     * @return Lista de objetos Préstamo por cada entrada de la tabla de datos
+     * @return Flujo de objetos Préstamo, que debe cerrarse tras su uso
      */
     @Override
-    public List<Loan> searchDetailDB(User currentUser, ResourceBundle rb) {
-        String query1 = String.format("SELECT * FROM %s", tableName);
-        String query2 = String.format("SELECT * FROM %s WHERE %s = ?",
-                configProps.getProperty("database-name") + "." + configProps.getProperty("database-table-2"), field2);
-        String query3 = String.format("SELECT * FROM %s WHERE %s = ?",
-                configProps.getProperty("database-name") + "." + configProps.getProperty("database-table-1"), field3);
+    public Stream<Loan> streamDB(User currentUser, boolean details, ResourceBundle rb) {
+        try {
+            Connection con = ConnectionPool.getInstance().getConnection(currentUser);
+            if (!details) {
+                return mapping.stream(con, fetchSize);
+            }
+            return Cursor.stream(con, detailSQL + String.format(" ORDER BY l.%s", field1), fetchSize,
+                    rs -> readLoan(rs, true));
+        } catch (SQLException sqle) {
+            throw new RuntimeException(String.format("  %s\n%s\n", rb.getString("dao-general-error"), sqle.getMessage()));
+        }
+    }
+
+    /**
+     * Método para extraer una página de entradas de la tabla de datos Préstamos,
+     * ordenadas por ID, por socio, por libro o por fecha
+     *
+     * @param currentUser Objeto de usuario con sus datos
+     *                    de acceso a la base de datos
+     * @param order       Número del orden del listado: 1 ID, 2 socio, 3 libro, 4 fecha
+     * @param last        Último préstamo de la página anterior,
+     *                    o nulo para la primera página
+     * @param size        Número máximo de entradas de la página
+     * @param details     Verdadero para añadir los detalles de libro y socio
+     * @param rb          Recurso para la localización
+     *                    del texto del programa
+     * @return Lista de objetos Préstamo de la página
+     */
+    @Override
+    public List<Loan> searchPageDB(User currentUser, int order, Loan last, int size, boolean details, ResourceBundle rb) {
+        if (!details && Replica.getInstance().sync(currentUser)) {
+            return Replica.getInstance().loans().page(order, last, size);
+        }
         List<Loan> listLoan = new ArrayList<>();
 
-        try (Connection con = DriverManager.getConnection(url, currentUser.getName(), currentUser.getPassword());
-             Statement stmt1 = con.createStatement();
-             PreparedStatement pStmt2 = con.prepareStatement(query2);
-             PreparedStatement pStmt3 = con.prepareStatement(query3);
-             ResultSet rs1 = stmt1.executeQuery(query1)) {
-            ResultSet rs2 = pStmt2.getResultSet();
-            ResultSet rs3 = pStmt3.getResultSet();
-            while (rs1.next()) {
-                pStmt2.setInt(1, rs1.getInt(2));
-                pStmt3.setInt(1, rs1.getInt(3));
-                rs2 = pStmt2.executeQuery();
-                rs3 = pStmt3.executeQuery();
-                rs2.next();
-                rs3.next();
-                listLoan.add(new Loan(rs1.getInt(1),
-                        rs1.getInt(2),
-                        rs1.getInt(3),
-                        rs1.getDate(4).toLocalDate(),
-                        new Member(rs2.getInt(1), rs2.getString(2), rs2.getString(3)),
-                        new Book(rs3.getInt(1), rs3.getString(2), rs3.getString(3), rs3.getBoolean(4))));
+        try (Connection con = ConnectionPool.getInstance().getConnection(currentUser)) {
+            if (!details) {
+                return mapping.page(con, order, last, size);
+            }
+            String[] queries = detailPageSQL[order >= 1 && order <= detailPageSQL.length ? order - 1 : 0];
+            try (PreparedStatement pStmt = con.prepareStatement(last == null ? queries[0] : queries[1])) {
+                Keyset.bind(pStmt, size, last == null ? new Object[0] : mapping.keys(order, last));
+                try (ResultSet rs = pStmt.executeQuery()) {
+                    while (rs.next()) {
+                        listLoan.add(readLoan(rs, true));
+                    }
+                }
             }
-            rs2.close();
-            rs3.close();
         } catch (SQLException sqle) {
             System.err.printf("  %s\n%s\n", rb.getString("dao-general-error"), sqle.getMessage());
         }
@@ -255,6 +393,29 @@ public class LibDBLoan implements LibDAO<Loan> {
         return listLoan;
     }
 
+    /**
+     * Método para construir el préstamo de la fila actual de una consulta
+     *
+     * @param rs      Resultado de la consulta, situado en la fila
+     * @param details Verdadero si la consulta incluye los datos de socio y libro
+     * @return Objeto Préstamo de la fila
+     * @throws SQLException Si falla la lectura de alguna columna
+     */
+    private static Loan readLoan(ResultSet rs, boolean details) throws SQLException {
+        if (details) {
+            return new Loan(rs.getInt(1),
+                    rs.getInt(2),
+                    rs.getInt(3),
+                    rs.getDate(4).toLocalDate(),
+                    new Member(rs.getInt(2), rs.getString(5), rs.getString(6)),
+                    new Book(rs.getInt(3), rs.getString(7), rs.getString(8), rs.getBoolean(9)));
+        }
+        return new Loan(rs.getInt(1),
+                rs.getInt(2),
+                rs.getInt(3),
+                rs.getDate(4).toLocalDate());
+    }
+
     /**
      * Método para extraer entradas de la tabla de datos Préstamos
      * según un ID concreto a buscar entre columnas de la tabla
@@ -268,28 +429,7 @@ public class LibDBLoan implements LibDAO<Loan> {
      * @return Objeto Préstamo con la entrada que haya salido de la búsqueda
      */
     public List<Loan> searchTB(User currentUser, int opt, int ID, ResourceBundle rb) {
-        String query = String.format("SELECT * FROM %s WHERE %s = ?",
-                tableName, opt == 1 ? field1 : opt == 2 ? field2 : field3);
-
-        try (Connection con = DriverManager.getConnection(url, currentUser.getName(), currentUser.getPassword());
-             PreparedStatement pStmt = con.prepareStatement(query)) {
-            pStmt.setInt(1, ID);
-            List<Loan> listLoans = new ArrayList<>();
-            ResultSet rs = pStmt.executeQuery();
-            while (rs.next()) {
-                listLoans.add(new Loan(rs.getInt(1),
-                        rs.getInt(2),
-                        rs.getInt(3),
-                        rs.getDate(4).toLocalDate()));
-            }
-            rs.close();
-            if (listLoans.isEmpty()) {
-                throw new SQLException(rb.getString("dao-loan-error-search"));
-            }
-            return listLoans;
-        } catch (SQLException sqle) {
-            throw new RuntimeException(String.format("  %s\n%s\n", rb.getString("dao-general-error"), sqle.getMessage()));
-        }
+        return search(currentUser, opt == 1 ? 0 : opt == 2 ? 1 : 2, ID, rb);
     }
 
     /**
@@ -304,21 +444,37 @@ public class LibDBLoan implements LibDAO<Loan> {
      * @return Lista de objetos Préstamo de las entradas resultantes de la búsqueda
      */
     public List<Loan> searchTB(User currentUser, LocalDate date, ResourceBundle rb) {
-        String query = String.format("SELECT * FROM %s WHERE %s = ?", tableName, field4);
+        return search(currentUser, 3, Date.valueOf(date), rb);
+    }
 
-        try (Connection con = DriverManager.getConnection(url, currentUser.getName(), currentUser.getPassword());
-             PreparedStatement pStmt = con.prepareStatement(query)) {
-            pStmt.setDate(1, Date.valueOf(date));
-            List<Loan> listLoans = new ArrayList<>();
-            ResultSet rs = pStmt.executeQuery();
-            while (rs.next()) {
-                listLoans.add(new Loan(rs.getInt(1),
-                        rs.getInt(2),
-                        rs.getInt(3),
-                        rs.getDate(4).toLocalDate()));
-            }
-            rs.close();
-            if (listLoans.isEmpty()) {
+    /**
+     * Método para extraer las entradas de la tabla de datos Préstamos con un valor
+     * dado en una columna, pasando por la caché de resultados
+     *
+     * @param currentUser Objeto de usuario con sus datos
+     *                    de acceso a la base de datos
+     * @param column      Posición de la columna: 0 ID, 1 socio, 2 libro, 3 fecha
+     * @param value       Valor que buscar en la columna
+     * @param rb          Recurso para la localización
+     *                    del texto del programa
+     * @return Lista de objetos Préstamo de las entradas resultantes de la búsqueda
+     */
+    private List<Loan> search(User currentUser, int column, Object value, ResourceBundle rb) {
+        try {
+            List<Loan> listLoans = results.get(column + ":" + value, key -> {
+                try (Connection con = ConnectionPool.getInstance().getConnection(currentUser);
+                     PreparedStatement pStmt = con.prepareStatement(searchSQL[column])) {
+                    pStmt.setObject(1, value);
+                    List<Loan> loans = new ArrayList<>();
+                    try (ResultSet rs = pStmt.executeQuery()) {
+                        while (rs.next()) {
+                            loans.add(readLoan(rs, false));
+                        }
+                    }
+                    return loans.isEmpty() ? null : List.copyOf(loans);
+                }
+            });
+            if (listLoans == null) {
                 throw new SQLException(rb.getString("dao-loan-error-search"));
             }
             return listLoans;
@@ -336,59 +492,71 @@ public class LibDBLoan implements LibDAO<Loan> {
      * @param ID          Identificación numérica de la entrada a eliminar
      * @param rb          Recurso para la localización
      *                    del texto del programa
-     * @return ID máxima tras la eliminación de la entrada
      */
     @Override
-    public int deleteDB(User currentUser, int ID, ResourceBundle rb) {
-        String query1 = String.format("SELECT %s FROM %s WHERE %s = ?",
-                field3, tableName, field1);
-        String query2 = String.format("UPDATE %s SET %s = ? WHERE %s = ?",
-                configProps.getProperty("database-name") + "." + configProps.getProperty("database-table-1"),
-                configProps.getProperty("database-table-1-field-4"), field3);
-        String query3 = String.format("DELETE FROM %s WHERE %s = ?", tableName, field1);
-        String query4 = String.format("SELECT %s FROM %s WHERE %s = (SELECT max(%s) FROM %s)",
-                field1, tableName, field1, field1, tableName);
+    public void deleteDB(User currentUser, int ID, ResourceBundle rb) {
+        deleteDB(currentUser, List.of(ID), rb);
+    }
 
-        try (Connection con = DriverManager.getConnection(url, currentUser.getName(), currentUser.getPassword());
-             PreparedStatement pStmt1 = con.prepareStatement(query1);
-             PreparedStatement pStmt2 = con.prepareStatement(query2);
-             PreparedStatement pStmt3 = con.prepareStatement(query3);
-             Statement stmt4 = con.createStatement()) {
-            pStmt1.setInt(1, ID);
-            ResultSet rs = pStmt1.executeQuery();
-            rs.next();
-            int idlib = rs.getInt(1);
-            if (rs.next()) {
-                rs.close();
-                throw new SQLException(rb.getString("dao-loan-error-location-loan"));
-            }
-            rs.close();
+    /**
+     * Método para eliminar varias entradas de la tabla de datos Préstamos
+     * en una sola transacción, devolviendo sus libros a disponibles
+     * y descartándolos de la caché de libros;
+     * si alguna devolución falla no se aplica ninguna
+     *
+     * @param currentUser Objeto de usuario con sus datos
+     *                    de acceso a la base de datos
+     * @param IDs         Identificaciones numéricas de las entradas a eliminar
+     * @param rb          Recurso para la localización
+     *                    del texto del programa
+     */
+    public void deleteDB(User currentUser, List<Integer> IDs, ResourceBundle rb) {
+        Set<Integer> distinctIDs = new LinkedHashSet<>(IDs);
 
-            pStmt2.setBoolean(1, false);
-            pStmt2.setInt(2, idlib);
-            int updates = pStmt2.executeUpdate();
-            if (updates == 0) {
-                throw new SQLException(rb.getString("dao-loan-error-avail"));
-            } else if (updates > 1) {
-                pStmt2.setBoolean(1, true);
-                pStmt2.executeUpdate();
-                throw new SQLException(rb.getString("dao-loan-error-location-book"));
-            }
+        try (Connection con = ConnectionPool.getInstance().getConnection(currentUser);
+             PreparedStatement pStmt1 = con.prepareStatement(returnSQL);
+             PreparedStatement pStmt2 = con.prepareStatement(mapping.getDeleteSQL());
+             PreparedStatement pStmt3 = con.prepareStatement(releaseSQL)) {
+            con.setAutoCommit(false);
+            try {
+                List<Loan> loans = mapping.select(con, distinctIDs.stream().mapToInt(Integer::intValue).toArray());
+                for (int ID : distinctIDs) {
+                    pStmt1.setInt(1, ID);
+                    pStmt1.addBatch();
+                    pStmt2.setInt(1, ID);
+                    pStmt2.addBatch();
+                    pStmt3.setInt(1, ID);
+                    pStmt3.addBatch();
+                }
+// Members are locked before books, in the same order as a checkout, so that a checkout and a return cannot deadlock
+                for (int updates : pStmt3.executeBatch()) {
+                    if (updates != 1) {
+                        throw new SQLException(rb.getString("dao-loan-error-location-loan"));
+                    }
+                }
+                for (int updates : pStmt1.executeBatch()) {
+                    if (updates != 1) {
+                        throw new SQLException(rb.getString("dao-loan-error-avail"));
+                    }
+                }
+                for (int updates : pStmt2.executeBatch()) {
+                    if (updates != 1) {
+                        throw new SQLException(rb.getString("dao-loan-error-location-loan"));
+                    }
+                }
 
-            pStmt3.setInt(1, ID);
-            if (pStmt3.executeUpdate() == 1) {
-                System.out.printf("  %s.\n", rb.getString("dao-loan-delete"));
-                ResultSet rs4 = stmt4.executeQuery(query4);
-                if (rs4.next()) {
-                    int maxIDLib = rs4.getInt(1);
-                    rs4.close();
-                    return maxIDLib;
-                } else {
-                    rs4.close();
-                    return 0;
+                con.commit();
+                LibDBStats.getInstance().invalidate();
+                Replica.getInstance().expire();
+                for (Loan loan : loans) {
+                    LibDBBook.getInstance().getCache().invalidate(loan.getIdBook());
                 }
-            } else {
-                throw new SQLException();
+                LibDBBook.getInstance().getResults().clear();
+                results.clear();
+                System.out.printf("  %s.\n", rb.getString("dao-loan-delete"));
+            } catch (SQLException sqle) {
+                con.rollback();
+                throw sqle;
             }
         } catch (SQLException sqle) {
             throw new RuntimeException(String.format("  %s\n%s\n", rb.getString("dao-general-error"), sqle.getMessage()));
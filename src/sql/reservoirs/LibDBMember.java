@@ -4,6 +4,12 @@
  */
 package sql.reservoirs;
 
+import sql.ConnectionPool;
+import sql.caches.NegativeCache;
+import sql.caches.TinyLfuCache;
+import sql.search.FuzzyIndex;
+import sql.search.PrefixTree;
+import sql.search.TrigramIndex;
 import tables.Book;
 import tables.Member;
 import tables.User;
@@ -11,9 +17,15 @@ import utils.Utils;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.ResourceBundle;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Clase principal de métodos de conexión a la base de datos
@@ -32,11 +44,6 @@ public final class LibDBMember implements LibDAO<Member> {
      * Lista de propiedades del programa
      */
     private final Properties configProps = Utils.readProperties();
-    /**
-     * URL de la base de datos utilizada por este código
-     */
-    private final String url = configProps.getProperty("database-url") + "/" +
-                               configProps.getProperty("database");
     /**
      * Ruta completa de la tabla de datos manejada en esta clase
      */
@@ -54,6 +61,106 @@ public final class LibDBMember implements LibDAO<Member> {
      * Campo 3 de la tabla de datos;
      */
     private final String field3 = configProps.getProperty("database-table-2-field-3");
+    /**
+     * Número de filas por bloque leído del servidor al recorrer la tabla
+     */
+    private final int fetchSize = Integer.parseInt(configProps.getProperty("database-fetch-size", "100"));
+    /**
+     * Caché de lectura de las entradas por su ID, invalidada
+     * por cada modificación hecha desde las clases DAO
+     */
+    private final TinyLfuCache<Integer, Member> cache = new TinyLfuCache<>(Long.parseLong(configProps.getProperty("database-cache-size", "256")),
+            member -> 1, Long.parseLong(configProps.getProperty("database-cache-expiry", "60000")));
+    /**
+     * Caché de las búsquedas por texto sin resultados, de corta duración
+     * y vaciada por cada alta hecha desde las clases DAO
+     */
+    private final NegativeCache<String> notFound = new NegativeCache<>(
+            Integer.parseInt(configProps.getProperty("database-cache-negative-size", "256")),
+            Long.parseLong(configProps.getProperty("database-cache-negative-expiry", "10000")));
+    /**
+     * Caché de los resultados de las búsquedas por texto, pesados por su número
+     * de entradas y vaciada por cada modificación hecha desde las clases DAO
+     */
+    private final TinyLfuCache<String, List<Member>> results = new TinyLfuCache<>(
+            Long.parseLong(configProps.getProperty("database-cache-results-size", "1000")),
+            List::size, Long.parseLong(configProps.getProperty("database-cache-expiry", "60000")));
+    /**
+     * Correspondencia de la tabla de datos con los objetos Socio; los listados
+     * se ordenan por ID, por nombre y apellidos o por apellidos y nombre,
+     * acabando en la ID y con un índice con las mismas columnas
+     */
+    private final TableMapping<Member> mapping = new TableMapping<>(configProps, "database-table-2",
+            new String[]{"database-table-2-field-1", "database-table-2-field-2", "database-table-2-field-3"},
+            new int[][]{{0}, {1, 2, 0}, {2, 1, 0}},
+            rs -> new Member(rs.getInt(1),
+                    rs.getString(2),
+                    rs.getString(3)),
+            member -> new Object[]{member.getID(), member.getName(), member.getSurname()});
+    /**
+     * Consulta de las columnas de texto de las entradas posteriores a una ID,
+     * para cargar los índices de búsqueda
+     */
+    private final String textSQL = String.format("SELECT %s, %s, %s FROM %s WHERE %s > ?",
+            field1, field2, field3, tableName, field1);
+    /**
+     * Consulta de los socios junto a los libros que tienen prestados,
+     * una fila por préstamo y ordenada por socio
+     */
+    private final String detailSQL = String.format("SELECT m.%s, m.%s, m.%s, b.%s, b.%s, b.%s, b.%s FROM %s m " +
+                                                   "LEFT JOIN %s l ON m.%s = l.%s LEFT JOIN %s b ON l.%s = b.%s ORDER BY m.%s",
+            field1, field2, field3,
+            configProps.getProperty("database-table-1-field-1"), configProps.getProperty("database-table-1-field-2"),
+            configProps.getProperty("database-table-1-field-3"), configProps.getProperty("database-table-1-field-4"),
+            tableName,
+            configProps.getProperty("database-name") + "." + configProps.getProperty("database-table-3"), field1, field1,
+            configProps.getProperty("database-name") + "." + configProps.getProperty("database-table-1"),
+            configProps.getProperty("database-table-1-field-1"), configProps.getProperty("database-table-1-field-1"),
+            field1);
+    /**
+     * Consulta de los libros prestados a un bloque de socios
+     */
+    private final String loanDetailSQL = String.format("SELECT l.%s, b.%s, b.%s, b.%s, b.%s FROM %s l " +
+                                                       "JOIN %s b ON l.%s = b.%s WHERE l.%s IN (%s)",
+            field1,
+            configProps.getProperty("database-table-1-field-1"), configProps.getProperty("database-table-1-field-2"),
+            configProps.getProperty("database-table-1-field-3"), configProps.getProperty("database-table-1-field-4"),
+            configProps.getProperty("database-name") + "." + configProps.getProperty("database-table-3"),
+            configProps.getProperty("database-name") + "." + configProps.getProperty("database-table-1"),
+            configProps.getProperty("database-table-1-field-1"), configProps.getProperty("database-table-1-field-1"),
+            field1, String.join(",", Collections.nCopies(TableMapping.ID_BLOCK, "?")));
+    /**
+     * Consulta de los préstamos de un socio
+     */
+    private final String loanSQL = String.format("SELECT %s FROM %s WHERE %s = ?",
+            field1, configProps.getProperty("database-name") + "." + configProps.getProperty("database-table-3"), field1);
+    /**
+     * Intervalo mínimo, en milisegundos, entre contrastes del índice de búsqueda
+     * con el número de entradas e ID máxima de la tabla
+     */
+    private final long checkAge = Long.parseLong(configProps.getProperty("database-search-checkage", "1000"));
+    /**
+     * Instante del último contraste del índice de trigramas con la tabla
+     */
+    private long indexCheckedAt;
+    /**
+     * Índice de trigramas de las columnas de texto de la tabla
+     */
+    private final TrigramIndex index = new TrigramIndex(2,
+            Long.parseLong(configProps.getProperty("database-search-maxage", "600000")));
+    /**
+     * Árboles de prefijos de las columnas de texto de la tabla, para el autocompletado
+     */
+    private final PrefixTree[] prefixes = {new PrefixTree(), new PrefixTree()};
+    /**
+     * Índice de búsqueda tolerante a erratas de las columnas de texto de la tabla
+     */
+    private final FuzzyIndex fuzzy = new FuzzyIndex(2,
+            Integer.parseInt(configProps.getProperty("database-search-fuzzy-distance", "2")));
+    /**
+     * Número máximo de propuestas del autocompletado
+     */
+    private final int completions = Integer.parseInt(configProps.getProperty("database-search-completions", "10"));
 
     /**
      * Constructor privado de la clase
@@ -70,6 +177,57 @@ public final class LibDBMember implements LibDAO<Member> {
         return instance;
     }
 
+    /**
+     * Método getter de la caché de socios por ID
+     *
+     * @return Caché de lectura de la tabla de datos Socios
+     */
+    public TinyLfuCache<Integer, Member> getCache() {
+        return cache;
+    }
+
+    /**
+     * Método getter de la caché de búsquedas sin resultados
+     *
+     * @return Caché de textos buscados sin socios encontrados
+     */
+    public NegativeCache<String> getNotFound() {
+        return notFound;
+    }
+
+    /**
+     * Método getter de la caché de resultados de búsqueda
+     *
+     * @return Caché de listas de socios por texto buscado
+     */
+    public TinyLfuCache<String, List<Member>> getResults() {
+        return results;
+    }
+
+    /**
+     * Método para vaciar las cachés y el índice de trigramas, que se cargan
+     * de nuevo desde la base de datos activa en el siguiente uso
+     */
+    public void clearCaches() {
+        cache.clear();
+        results.clear();
+        notFound.clear();
+        synchronized (index) {
+            index.clear();
+            indexCheckedAt = 0;
+        }
+        LibDBStats.getInstance().invalidate();
+    }
+
+    /**
+     * Método getter de la correspondencia de la tabla de datos, para su copia en memoria
+     *
+     * @return Correspondencia de la tabla con los objetos Socio
+     */
+    TableMapping<Member> getMapping() {
+        return mapping;
+    }
+
     /**
      * Método para contabilizar las entradas de la tabla de datos Socios
      *
@@ -81,21 +239,8 @@ public final class LibDBMember implements LibDAO<Member> {
      */
     @Override
     public int[] countDB(User currentUser, ResourceBundle rb) {
-        String query1 = String.format("SELECT COUNT(*) FROM %s", tableName);
-        String query2 = String.format("SELECT %s FROM %s WHERE %s = (SELECT max(%s) FROM %s)",
-                field1, tableName, field1, field1, tableName);
-
-        try (Connection con = DriverManager.getConnection(url, currentUser.getName(), currentUser.getPassword());
-             Statement stmt1 = con.createStatement();
-             Statement stmt2 = con.createStatement();
-             ResultSet rs1 = stmt1.executeQuery(query1);
-             ResultSet rs2 = stmt2.executeQuery(query2)) {
-            rs1.next();
-            if (rs2.next()) {
-                return new int[]{rs1.getInt(1), rs2.getInt(1)};
-            } else {
-                return new int[]{rs1.getInt(1), 0};
-            }
+        try (Connection con = ConnectionPool.getInstance().getConnection(currentUser)) {
+            return mapping.count(con);
         } catch (SQLException sqle) {
             System.err.printf("  %s\n%s\n", rb.getString("dao-general-error"), sqle.getMessage());
             return null;
@@ -110,42 +255,31 @@ public final class LibDBMember implements LibDAO<Member> {
      * @param member      Objeto Socio que registrar en la base de datos
      * @param rb          Recurso para la localización
      *                    del texto del programa
+     * @return ID generada por la base de datos para el nuevo socio
      */
     @Override
-    public void addDb(User currentUser, Member member, ResourceBundle rb) {
-        String query1 = String.format("SELECT COUNT(*) FROM %s", tableName);
-        String query2 = String.format("SELECT * FROM %s WHERE LOWER(%s) = LOWER(?) AND LOWER(%s) = LOWER(?)",
-                tableName, field2, field3);
-        String query3 = String.format("INSERT INTO %s VALUES (?,?,?)", tableName);
-
-        try (Connection con = DriverManager.getConnection(url, currentUser.getName(), currentUser.getPassword());
-             Statement s1 = con.createStatement();
-             PreparedStatement pStmt2 = con.prepareStatement(query2);
-             PreparedStatement pStmt3 = con.prepareStatement(query3);
-             ResultSet rs1 = s1.executeQuery(query1)) {
-            rs1.next();
-            if (rs1.getInt(1) >= Integer.parseInt(configProps.getProperty("database-table-2-maxsocs"))) {
+    public int addDb(User currentUser, Member member, ResourceBundle rb) {
+        try (Connection con = ConnectionPool.getInstance().getConnection(currentUser)) {
+            if (mapping.count(con)[0] >= Integer.parseInt(configProps.getProperty("database-table-2-maxsocs"))) {
                 throw new SQLException(rb.getString("dao-member-error-limit"));
             }
 
-            pStmt2.setString(1, member.getName());
-            pStmt2.setString(2, member.getSurname());
-            ResultSet rs2 = pStmt2.executeQuery();
-            if (rs2.next()) {
-                rs2.close();
-                throw new SQLException(rb.getString("dao-member-error-register"));
-            } else {
-                rs2.close();
-            }
-
-            pStmt3.setInt(1, member.getID());
-            pStmt3.setString(2, member.getName());
-            pStmt3.setString(3, member.getSurname());
-            if (pStmt3.executeUpdate() == 1) {
+            int idMember = mapping.insert(con, member);
+            if (idMember != -1) {
+                LibDBStats.getInstance().invalidate();
+                Replica.getInstance().expire();
+                cache.invalidate(idMember);
+                notFound.clear();
+                results.clear();
                 System.out.printf("  %s.\n", rb.getString("dao-member-add"));
             } else throw new SQLException(rb.getString("dao-member-error-add"));
+            synchronized (index) {
+                indexEntry(idMember, new String[]{member.getName(), member.getSurname()});
+            }
+            return idMember;
         } catch (SQLException sqle) {
-            throw new RuntimeException(sqle.getMessage());
+            throw new RuntimeException(DUPLICATE_KEY.equals(sqle.getSQLState()) ?
+                    rb.getString("dao-member-error-register") : sqle.getMessage());
         }
     }
 
@@ -160,27 +294,21 @@ public final class LibDBMember implements LibDAO<Member> {
      */
     @Override
     public List<Member> searchDB(User currentUser, ResourceBundle rb) {
-        String query = String.format("SELECT * FROM %s", tableName);
-        List<Member> listMember = new ArrayList<>();
-
-        try (Connection con = DriverManager.getConnection(url, currentUser.getName(), currentUser.getPassword());
-             Statement stmt = con.createStatement();
-             ResultSet rs = stmt.executeQuery(query)) {
-            while (rs.next()) {
-                listMember.add(new Member(rs.getInt(1),
-                        rs.getString(2),
-                        rs.getString(3)));
-            }
+        if (Replica.getInstance().sync(currentUser)) {
+            return Replica.getInstance().members().list();
+        }
+        try (Connection con = ConnectionPool.getInstance().getConnection(currentUser)) {
+            return mapping.select(con);
         } catch (SQLException sqle) {
             System.err.printf("  %s\n%s\n", rb.getString("dao-general-error"), sqle.getMessage());
+            return new ArrayList<>();
         }
-
-        return listMember;
     }
 
     /**
      * Método para extraer todas las entradas de la tabla de datos Socios,
-     * junto a detalles de sus préstamos
+     * junto a detalles de sus préstamos; una única consulta ordenada
+     * por socio cuyas filas se agrupan en la lista de libros de cada uno
      *
      * @param currentUser Objeto de usuario con sus datos
      *                    de acceso a la base de datos
@@ -190,42 +318,36 @@ public final class LibDBMember implements LibDAO<Member> {
      */
     @Override
     public List<Member> searchDetailDB(User currentUser, ResourceBundle rb) {
-        String query1 = String.format("SELECT * FROM %s", tableName);
-        String query2 = String.format("SELECT %s FROM %s WHERE %s = ?", configProps.getProperty("database-table-1-field-1"),
-                configProps.getProperty("database-name") + "." + configProps.getProperty("database-table-3"), field1);
-        String query3 = String.format("SELECT * FROM %s WHERE %s = ?",
-                configProps.getProperty("database-name") + "." + configProps.getProperty("database-table-1"),
-                configProps.getProperty("database-table-1-field-1"));
         List<Member> listMember = new ArrayList<>();
 
-        try (Connection con = DriverManager.getConnection(url, currentUser.getName(), currentUser.getPassword());
-             Statement stmt1 = con.createStatement();
-             PreparedStatement pStmt2 = con.prepareStatement(query2);
-             PreparedStatement pStmt3 = con.prepareStatement(query3);
-             ResultSet rs1 = stmt1.executeQuery(query1)) {
-            List<Book> bookList;
-            ResultSet rs2 = pStmt2.getResultSet();
-            ResultSet rs3;
-            while (rs1.next()) {
-                bookList = new ArrayList<>();
-                pStmt2.setInt(1, rs1.getInt(1));
-                rs2 = pStmt2.executeQuery();
-                while (rs2.next()) {
-                    pStmt3.setInt(1, rs2.getInt(1));
-                    rs3 = pStmt3.executeQuery();
-                    rs3.next();
-                    bookList.add(new Book(rs3.getInt(1),
-                            rs3.getString(2),
-                            rs3.getString(3),
-                            rs3.getBoolean(4)));
-                    rs3.close();
+        try (Connection con = ConnectionPool.getInstance().getConnection(currentUser);
+             PreparedStatement pStmt = con.prepareStatement(detailSQL);
+             ResultSet rs = pStmt.executeQuery()) {
+            List<Book> bookList = null;
+            int idMember = 0;
+            String name = null;
+            String surname = null;
+            while (rs.next()) {
+                if (bookList == null || rs.getInt(1) != idMember) {
+                    if (bookList != null) {
+                        listMember.add(new Member(idMember, name, surname, bookList));
+                    }
+                    bookList = new ArrayList<>();
+                    idMember = rs.getInt(1);
+                    name = rs.getString(2);
+                    surname = rs.getString(3);
+                }
+                int idBook = rs.getInt(4);
+                if (!rs.wasNull()) {
+                    bookList.add(new Book(idBook,
+                            rs.getString(5),
+                            rs.getString(6),
+                            rs.getBoolean(7)));
                 }
-                listMember.add(new Member(rs1.getInt(1),
-                        rs1.getString(2),
-                        rs1.getString(3),
-                        bookList));
             }
-            rs2.close();
+            if (bookList != null) {
+                listMember.add(new Member(idMember, name, surname, bookList));
+            }
         } catch (SQLException sqle) {
             System.err.printf("  %s\n%s\n", rb.getString("dao-general-error"), sqle.getMessage());
         }
@@ -233,6 +355,114 @@ public final class LibDBMember implements LibDAO<Member> {
         return listMember;
     }
 
+    /**
+     * Método para recorrer todas las entradas de la tabla de datos Socios
+     * en orden de ID, sin reunirlas en una lista; con detalles, las filas
+     * de cada socio se unen en su lista de libros según se leen
+     *
+     * @param currentUser Objeto de usuario con sus datos
+     *                    de acceso a la base de datos
+     * @param details     Verdadero para añadir los libros prestados a cada socio
+     * @param rb          Recurso para la localización
+     *                    del texto del programa
+     * @return Flujo de objetos Socio, que debe cerrarse tras su uso
+     */
+    @Override
+    public Stream<Member> streamDB(User currentUser, boolean details, ResourceBundle rb) {
+        try {
+            Connection con = ConnectionPool.getInstance().getConnection(currentUser);
+            if (!details) {
+                return mapping.stream(con, fetchSize);
+            }
+            return Cursor.stream(con, detailSQL, fetchSize,
+                    rs -> {
+                        List<Book> bookList = new ArrayList<>(1);
+                        int idBook = rs.getInt(4);
+                        if (!rs.wasNull()) {
+                            bookList.add(new Book(idBook,
+                                    rs.getString(5),
+                                    rs.getString(6),
+                                    rs.getBoolean(7)));
+                        }
+                        return new Member(rs.getInt(1), rs.getString(2), rs.getString(3), bookList);
+                    },
+                    Member::getID,
+                    (member, next) -> {
+                        List<Book> bookList = member.getListBook();
+                        bookList.addAll(next.getListBook());
+                        return new Member(member.getID(), member.getName(), member.getSurname(), bookList);
+                    });
+        } catch (SQLException sqle) {
+            throw new RuntimeException(String.format("  %s\n%s\n", rb.getString("dao-general-error"), sqle.getMessage()));
+        }
+    }
+
+    /**
+     * Método para extraer una página de entradas de la tabla de datos Socios,
+     * ordenadas por ID, por nombre y apellidos o por apellidos y nombre;
+     * los detalles de sus préstamos se piden en una segunda consulta
+     * solo para los socios de la página
+     *
+     * @param currentUser Objeto de usuario con sus datos
+     *                    de acceso a la base de datos
+     * @param order       Número del orden del listado: 1 ID, 2 nombre, 3 apellidos
+     * @param last        Último socio de la página anterior,
+     *                    o nulo para la primera página
+     * @param size        Número máximo de entradas de la página
+     * @param details     Verdadero para añadir los libros prestados a cada socio
+     * @param rb          Recurso para la localización
+     *                    del texto del programa
+     * @return Lista de objetos Socio de la página
+     */
+    @Override
+    public List<Member> searchPageDB(User currentUser, int order, Member last, int size, boolean details, ResourceBundle rb) {
+        if (!details && Replica.getInstance().sync(currentUser)) {
+            return Replica.getInstance().members().page(order, last, size);
+        }
+        try (Connection con = ConnectionPool.getInstance().getConnection(currentUser)) {
+            List<Member> listMember = mapping.page(con, order, last, size);
+            return details && !listMember.isEmpty() ? loanDetails(con, listMember) : listMember;
+        } catch (SQLException sqle) {
+            System.err.printf("  %s\n%s\n", rb.getString("dao-general-error"), sqle.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Método para añadir a una página de socios los libros que tienen prestados
+     *
+     * @param con        Conexión abierta con la base de datos
+     * @param listMember Socios de la página, sin detalles
+     * @return Socios de la página en el mismo orden, con sus libros prestados
+     * @throws SQLException Si falla la consulta
+     */
+    private List<Member> loanDetails(Connection con, List<Member> listMember) throws SQLException {
+        Map<Integer, List<Book>> books = new HashMap<>();
+        for (Member member : listMember) {
+            books.put(member.getID(), new ArrayList<>());
+        }
+
+        try (PreparedStatement pStmt = con.prepareStatement(loanDetailSQL)) {
+            for (int i = 0; i < listMember.size(); i += TableMapping.ID_BLOCK) {
+                for (int j = 0; j < TableMapping.ID_BLOCK; j++) {
+                    pStmt.setInt(j + 1, listMember.get(Math.min(i + j, listMember.size() - 1)).getID());
+                }
+                try (ResultSet rs = pStmt.executeQuery()) {
+                    while (rs.next()) {
+                        books.get(rs.getInt(1)).add(new Book(rs.getInt(2),
+                                rs.getString(3),
+                                rs.getString(4),
+                                rs.getBoolean(5)));
+                    }
+                }
+            }
+        }
+
+        return listMember.stream()
+                .map(member -> new Member(member.getID(), member.getName(), member.getSurname(), books.get(member.getID())))
+                .collect(Collectors.toList());
+    }
+
     /**
      * Método para extraer entradas de la tabla de datos Socios
      * según un fragmento de texto dado para buscar en una de las
@@ -241,28 +471,31 @@ public final class LibDBMember implements LibDAO<Member> {
      * @param currentUser Objeto de usuario con sus datos
      *                    de acceso a la base de datos
      * @param opt         Número para indicar la columna de la tabla donde buscar
-     * @param seed        Fragmento de texto que buscar en las entradas de la tabla
+     * @param seed        Fragmento de texto que buscar en las entradas de la tabla;
+     *                    si empieza por '~' se buscan palabras parecidas
      * @param rb          Recurso para la localización
      *                    del texto del programa
-     * @return Lista de objetos Socio que hayan salido de la búsqueda
+     * @return Lista de objetos Socio que hayan salido de la búsqueda, vacía si no hay ninguno
      */
     public List<Member> searchTB(User currentUser, int opt, String seed, ResourceBundle rb) {
-        String query = String.format("SELECT * FROM %s WHERE LOWER(%s) LIKE LOWER(?)",
-                tableName, opt == 2 ? field2 : field3);
-
-        try (Connection con = DriverManager.getConnection(url, currentUser.getName(), currentUser.getPassword());
-             PreparedStatement pStmt = con.prepareStatement(query)) {
-            pStmt.setString(1, "%" + seed + "%");
-            List<Member> listMember = new ArrayList<>();
-            ResultSet rs = pStmt.executeQuery();
-            while (rs.next()) {
-                listMember.add(new Member(rs.getInt(1),
-                        rs.getString(2),
-                        rs.getString(3)));
-            }
-            rs.close();
-            if (listMember.isEmpty()) {
-                throw new SQLException(rb.getString("dao-member-error-search-1"));
+        int field = opt == 2 ? 0 : 1;
+        String key = field + ":" + seed;
+        if (notFound.contains(key)) {
+            return List.of();
+        }
+        long version = notFound.version();
+        try {
+            List<Member> listMember = results.get(key, k -> {
+                try (Connection con = ConnectionPool.getInstance().getConnection(currentUser)) {
+                    TrigramIndex trigrams = index(con);
+                    int[] IDs = seed.startsWith("~") ? fuzzy.search(field, seed.substring(1)) : trigrams.search(field, seed);
+                    List<Member> members = mapping.select(con, IDs);
+                    return members.isEmpty() ? null : List.copyOf(members);
+                }
+            });
+            if (listMember == null) {
+                notFound.add(key, version);
+                return List.of();
             }
             return listMember;
         } catch (SQLException sqle) {
@@ -270,6 +503,125 @@ public final class LibDBMember implements LibDAO<Member> {
         }
     }
 
+    /**
+     * Método para proponer los textos de una columna de la tabla
+     * de datos Socios que empiezan por un prefijo dado
+     *
+     * @param currentUser Objeto de usuario con sus datos
+     *                    de acceso a la base de datos
+     * @param opt         Número para indicar la columna de la tabla donde buscar
+     * @param prefix      Prefijo que buscar en las entradas de la tabla
+     * @param rb          Recurso para la localización
+     *                    del texto del programa
+     * @return Lista de textos propuestos, en orden alfabético
+     */
+    public List<String> completeTB(User currentUser, int opt, String prefix, ResourceBundle rb) {
+        try (Connection con = ConnectionPool.getInstance().getConnection(currentUser)) {
+            index(con);
+            return prefixes[opt == 2 ? 0 : 1].complete(prefix, completions);
+        } catch (SQLException sqle) {
+            System.err.printf("  %s:\n%s\n", rb.getString("dao-general-error"), sqle.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Método para cargar por adelantado los índices de búsqueda
+     * de la tabla de datos Socios
+     *
+     * @param currentUser Objeto de usuario con sus datos
+     *                    de acceso a la base de datos
+     * @param rb          Recurso para la localización
+     *                    del texto del programa
+     */
+    public void loadIndex(User currentUser, ResourceBundle rb) {
+        try (Connection con = ConnectionPool.getInstance().getConnection(currentUser)) {
+            index(con);
+        } catch (SQLException sqle) {
+            System.err.printf("  %s:\n%s\n", rb.getString("dao-general-error"), sqle.getMessage());
+        }
+    }
+
+    /**
+     * Método para obtener el índice de trigramas de la tabla, junto con
+     * los árboles de prefijos y el índice de erratas, cargándolos
+     * de la base de datos si no lo están o han caducado; como mucho una vez
+     * por intervalo mínimo se contrastan con el número de entradas e ID máxima
+     * de la tabla, y si no coinciden se añaden las entradas posteriores a la ID
+     * máxima del índice, recargándolos completos solo si siguen sin coincidir
+     *
+     * @param con Conexión con la base de datos
+     * @return Índice de trigramas actualizado
+     * @throws SQLException Excepción en la lectura de la tabla
+     */
+    private TrigramIndex index(Connection con) throws SQLException {
+        synchronized (index) {
+            long now = System.currentTimeMillis();
+            boolean stale = index.isStale();
+            if (!stale && now - indexCheckedAt > checkAge) {
+                int[] count = mapping.count(con);
+                if (!index.matches(count[0], count[1])) {
+// IDs are never reused, so the entries added from other desks are the ones above the indexed maximum
+                    texts(con, index.maxID()).forEach(this::indexEntry);
+                    stale = !index.matches(count[0], count[1]);
+                }
+            }
+            indexCheckedAt = now;
+            if (stale) {
+                Map<Integer, String[]> entries = texts(con, 0);
+                index.load(entries);
+                fuzzy.load(entries);
+                for (int i = 0; i < prefixes.length; i++) {
+                    int field = i;
+                    prefixes[i].load(entries.values().stream().map(texts -> texts[field]).collect(Collectors.toList()));
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Método para añadir una entrada al índice de trigramas,
+     * al índice de erratas y a los árboles de prefijos; sin efecto
+     * si ya está indexada, como cuando una carga desde otro hilo
+     * ha leído la entrada antes de que su alta llegue a los índices.
+     * Debe llamarse con el cerrojo del índice de trigramas
+     *
+     * @param ID     Identificación numérica de la entrada
+     * @param fields Nombre y apellido de la entrada
+     */
+    private void indexEntry(int ID, String[] fields) {
+        if (index.contains(ID)) {
+            return;
+        }
+        index.put(ID, fields);
+        fuzzy.put(ID, fields);
+        prefixes[0].add(fields[0]);
+        prefixes[1].add(fields[1]);
+    }
+
+    /**
+     * Método para leer las columnas de texto de las entradas
+     * de la tabla de datos Socios posteriores a una ID
+     *
+     * @param con    Conexión con la base de datos
+     * @param fromID ID a partir de la cual leer, sin incluirla; 0 para toda la tabla
+     * @return Nombre y apellido de cada entrada, en orden de ID
+     * @throws SQLException Excepción en la lectura de la tabla
+     */
+    private Map<Integer, String[]> texts(Connection con, int fromID) throws SQLException {
+        Map<Integer, String[]> entries = new TreeMap<>();
+        try (PreparedStatement pStmt = con.prepareStatement(textSQL)) {
+            pStmt.setInt(1, fromID);
+            try (ResultSet rs = pStmt.executeQuery()) {
+                while (rs.next()) {
+                    entries.put(rs.getInt(1), new String[]{rs.getString(2), rs.getString(3)});
+                }
+            }
+        }
+        return entries;
+    }
+
     /**
      * Método para extraer entradas de la tabla de datos Socios
      * según su identificación numérica ID
@@ -282,20 +634,22 @@ public final class LibDBMember implements LibDAO<Member> {
      * @return Objeto Socio con los datos de la entrada encontrada
      */
     public Member searchTB(User currentUser, int ID, ResourceBundle rb) {
-        String query = String.format("SELECT * FROM %s WHERE %s = ?", tableName, field1);
-
-        try (Connection con = DriverManager.getConnection(url, currentUser.getName(), currentUser.getPassword());
-             PreparedStatement pStmt = con.prepareStatement(query)) {
-            pStmt.setInt(1, ID);
-            ResultSet rs = pStmt.executeQuery();
-            if (rs.next()) {
-                Member newMember = new Member(ID, rs.getString(2), rs.getString(3));
-                rs.close();
-                return newMember;
+        try {
+            Member member;
+            if (Replica.getInstance().sync(currentUser)) {
+                member = Replica.getInstance().members().get(ID);
             } else {
-                rs.close();
+                member = cache.get(ID, id -> {
+                    try (Connection con = ConnectionPool.getInstance().getConnection(currentUser)) {
+                        List<Member> members = mapping.select(con, id);
+                        return members.isEmpty() ? null : members.get(0);
+                    }
+                });
+            }
+            if (member == null) {
                 throw new SQLException(rb.getString("dao-member-error-search-2"));
             }
+            return member;
         } catch (SQLException sqle) {
             throw new RuntimeException(String.format("  %s\n%s\n", rb.getString("dao-general-error"), sqle.getMessage()));
         }
@@ -310,39 +664,32 @@ public final class LibDBMember implements LibDAO<Member> {
      * @param ID          Identificación numérica de la entrada a eliminar
      * @param rb          Recurso para la localización
      *                    del texto del programa
-     * @return ID máxima tras la eliminación de la entrada
      */
     @Override
-    public int deleteDB(User currentUser, int ID, ResourceBundle rb) {
-        String query1 = String.format("SELECT %s FROM %s WHERE %s = ?",
-                field1, configProps.getProperty("database-name") + "." + configProps.getProperty("database-table-3"), field1);
-        String query2 = String.format("DELETE FROM %s WHERE %s = ?", tableName, field1);
-        String query3 = String.format("SELECT %s FROM %s WHERE %s = (SELECT max(%s) FROM %s)",
-                field1, tableName, field1, field1, tableName);
-
-        try (Connection con = DriverManager.getConnection(url, currentUser.getName(), currentUser.getPassword());
-             PreparedStatement pStmt1 = con.prepareStatement(query1);
-             PreparedStatement pStmt2 = con.prepareStatement(query2);
-             Statement stmt3 = con.createStatement()) {
-            pStmt1.setInt(1, ID);
-            ResultSet rs = pStmt1.executeQuery();
-            if (rs.next()) {
-                throw new SQLException(rb.getString("dao-member-error-delete"));
+    public void deleteDB(User currentUser, int ID, ResourceBundle rb) {
+        try (Connection con = ConnectionPool.getInstance().getConnection(currentUser);
+             PreparedStatement pStmt = con.prepareStatement(loanSQL)) {
+            pStmt.setInt(1, ID);
+            try (ResultSet rs = pStmt.executeQuery()) {
+                if (rs.next()) {
+                    throw new SQLException(rb.getString("dao-member-error-delete"));
+                }
             }
-            rs.close();
 
-            pStmt2.setInt(1, ID);
-            if (pStmt2.executeUpdate() == 1) {
-                System.out.printf("  %s.\n", rb.getString("dao-member-delete"));
-                ResultSet rs3 = stmt3.executeQuery(query3);
-                if (rs3.next()) {
-                    int maxIDLib = rs3.getInt(1);
-                    rs3.close();
-                    return maxIDLib;
-                } else {
-                    rs3.close();
-                    return 0;
+            if (mapping.delete(con, ID)) {
+                cache.invalidate(ID);
+                results.clear();
+                LibDBStats.getInstance().invalidate();
+                Replica.getInstance().expire();
+                synchronized (index) {
+                    String[] texts = index.remove(ID);
+                    fuzzy.remove(ID);
+                    if (texts != null) {
+                        prefixes[0].remove(texts[0]);
+                        prefixes[1].remove(texts[1]);
+                    }
                 }
+                System.out.printf("  %s.\n", rb.getString("dao-member-delete"));
             } else {
                 throw new SQLException();
             }
@@ -0,0 +1,142 @@
+/**
+ * Paquete de comandos de conexión con la base de datos
+ * para la gestión de repositorios de datos
+ */
+package sql.reservoirs;
+
+import sql.ConnectionPool;
+import tables.User;
+import utils.Utils;
+
+import java.sql.*;
+import java.util.Properties;
+import java.util.ResourceBundle;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Clase de métodos de conexión a la base de datos con Derby
+ * para el recuento conjunto de las tablas de Libros, Socios
+ * y Préstamos; uso del patrón singleton
+ * <p>
+ * Los recuentos se obtienen en una única consulta y se guardan
+ * hasta que alguna clase DAO del paquete modifica las tablas,
+ * o hasta que expira su antigüedad máxima, para reflejar también
+ * los cambios hechos desde otros puestos
+ *
+ * @author JuanGS
+ * @version 1.0
+ * @since 10-2026
+ */
+public final class LibDBStats {
+    /**
+     * Instancia única de la clase
+     */
+    private static final LibDBStats instance = new LibDBStats();
+    /**
+     * Lista de propiedades del programa
+     */
+    private final Properties configProps = Utils.readProperties();
+    /**
+     * Consulta del número de entradas e ID máxima de cada tabla,
+     * leídos de la tabla de recuentos
+     */
+    private final String query;
+    /**
+     * Antigüedad máxima, en milisegundos, de los recuentos guardados
+     */
+    private final long maxAge = Long.parseLong(configProps.getProperty("database-stats-maxage", "30000"));
+    /**
+     * Contador de modificaciones hechas sobre las tablas
+     */
+    private final AtomicLong version = new AtomicLong();
+    /**
+     * Últimos recuentos leídos de la base de datos
+     */
+    private int[][] cached;
+    /**
+     * Valor del contador de modificaciones al leer los recuentos guardados
+     */
+    private long cachedVersion = -1;
+    /**
+     * Instante de lectura de los recuentos guardados
+     */
+    private long cachedAt;
+
+    /**
+     * Constructor privado de la clase
+     */
+    private LibDBStats() {
+        query = String.format("SELECT %s, %s FROM %s.%s WHERE %s BETWEEN 1 AND 3 ORDER BY %s",
+                configProps.getProperty("database-table-6-field-2"), configProps.getProperty("database-table-6-field-3"),
+                configProps.getProperty("database-name"), configProps.getProperty("database-table-6"),
+                configProps.getProperty("database-table-6-field-1"), configProps.getProperty("database-table-6-field-1"));
+    }
+
+    /**
+     * Método del patrón singleton para obtener la instancia única de clase
+     *
+     * @return Instancia de clase
+     */
+    public static LibDBStats getInstance() {
+        return instance;
+    }
+
+    /**
+     * Método para contabilizar las entradas e ID máxima de las tablas
+     * de Libros, Socios y Préstamos en una sola consulta, o desde
+     * los últimos valores leídos si no ha habido modificaciones
+     *
+     * @param currentUser Objeto de usuario con sus datos
+     *                    de acceso a la base de datos
+     * @param rb          Recurso para la localización
+     *                    del texto del programa
+     * @return Pares {número de filas, ID máxima} de las tablas
+     * de Libros, Socios y Préstamos, por este orden
+     */
+    public int[][] countDB(User currentUser, ResourceBundle rb) {
+        long current = version.get();
+        synchronized (this) {
+            if (cached != null && cachedVersion == current && System.currentTimeMillis() - cachedAt < maxAge) {
+                return copy(cached);
+            }
+        }
+
+        try (Connection con = ConnectionPool.getInstance().getConnection(currentUser);
+             PreparedStatement pStmt = con.prepareStatement(query);
+             ResultSet rs = pStmt.executeQuery()) {
+            int[][] count = new int[3][];
+            for (int i = 0; i < 3; i++) {
+                rs.next();
+                count[i] = new int[]{rs.getInt(1), rs.getInt(2)};
+            }
+            synchronized (this) {
+                cached = count;
+                cachedVersion = current;
+                cachedAt = System.currentTimeMillis();
+            }
+            return copy(count);
+        } catch (SQLException sqle) {
+            System.err.printf("  %s:\n%s\n", rb.getString("dao-general-error"), sqle.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Método para señalar una modificación de las tablas,
+     * descartando los recuentos guardados
+     */
+    void invalidate() {
+        version.incrementAndGet();
+    }
+
+    /**
+     * Método de copia de los recuentos, para que los guardados
+     * no se modifiquen desde fuera
+     *
+     * @param count Recuentos a copiar
+     * @return Copia de los recuentos
+     */
+    private static int[][] copy(int[][] count) {
+        return new int[][]{count[0].clone(), count[1].clone(), count[2].clone()};
+    }
+}
@@ -0,0 +1,267 @@
+/**
+ * Paquete de comandos de conexión con la base de datos
+ * para la gestión de repositorios de datos
+ */
+package sql.reservoirs;
+
+import sql.ConnectionPool;
+import tables.Book;
+import tables.Loan;
+import tables.Member;
+import tables.User;
+import utils.Utils;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Clase de copia en memoria de las tablas de Libros, Socios y Préstamos,
+ * opcional según las propiedades del programa; uso del patrón singleton
+ * <p>
+ * Las tablas se cargan enteras en la primera lectura y después se actualizan
+ * con el registro de cambios que llenan los disparadores de la base de datos:
+ * cada lectura cuya última consulta del registro sea más antigua que la
+ * antigüedad máxima configurada consulta los cambios posteriores y relee
+ * solo esas entradas. Derby bloquea la lectura de las filas del registro aún
+ * sin confirmar, de modo que ningún cambio queda atrás de la última ID leída.
+ * Las modificaciones hechas desde las clases DAO caducan la copia para
+ * que la siguiente lectura ya las refleje
+ * <p>
+ * Los disparadores del registro solo se crean si la copia está activada
+ * al construir la base de datos; si faltan, la copia no se usa
+ *
+ * @author JuanGS
+ * @version 1.0
+ * @since 10-2026
+ */
+public final class Replica {
+    /**
+     * Instancia única de la clase
+     */
+    private static final Replica instance = new Replica();
+    /**
+     * Lista de propiedades del programa
+     */
+    private final Properties configProps = Utils.readProperties();
+    /**
+     * Indicador de uso de la copia en memoria
+     */
+    private final boolean enabled = Boolean.parseBoolean(configProps.getProperty("database-replica", "false"));
+    /**
+     * Antigüedad máxima, en milisegundos, de la copia servida a las lecturas
+     */
+    private final long maxStale = Long.parseLong(configProps.getProperty("database-replica-maxstale", "5000"));
+    /**
+     * Consulta de la existencia del disparador de altas de libros del registro de cambios
+     */
+    private final String triggerSQL = "SELECT COUNT(*) FROM SYS.SYSTRIGGERS t, SYS.SYSSCHEMAS s " +
+                                      "WHERE t.SCHEMAID = s.SCHEMAID AND s.SCHEMANAME = ? AND t.TRIGGERNAME = ?";
+    /**
+     * Consulta de la última ID del registro de cambios
+     */
+    private final String lastSQL;
+    /**
+     * Consulta de los cambios posteriores a una ID del registro
+     */
+    private final String changesSQL;
+    /**
+     * Copias de las tablas de Libros, Socios y Préstamos, según el código
+     * de tabla del registro de cambios menos 1
+     */
+    private final List<TableReplica<?>> tables = new ArrayList<>();
+    /**
+     * Copia de la tabla de Libros
+     */
+    private final TableReplica<Book> books = new TableReplica<>(LibDBBook.getInstance().getMapping());
+    /**
+     * Copia de la tabla de Socios
+     */
+    private final TableReplica<Member> members = new TableReplica<>(LibDBMember.getInstance().getMapping());
+    /**
+     * Copia de la tabla de Préstamos
+     */
+    private final TableReplica<Loan> loans = new TableReplica<>(LibDBLoan.getInstance().getMapping());
+    /**
+     * Indicador de base de datos sin disparadores del registro de cambios
+     */
+    private boolean unlogged;
+    /**
+     * Indicador de carga completa de las copias
+     */
+    private boolean loaded;
+    /**
+     * Última ID del registro de cambios aplicada a las copias
+     */
+    private int lastChange;
+    /**
+     * Instante de la última consulta del registro de cambios
+     */
+    private long refreshedAt;
+
+    /**
+     * Constructor privado de la clase
+     */
+    private Replica() {
+        String tableName = configProps.getProperty("database-name") + "." + configProps.getProperty("database-table-5");
+        String field1 = configProps.getProperty("database-table-5-field-1");
+        lastSQL = String.format("SELECT COALESCE(MAX(%s), 0) FROM %s", field1, tableName);
+        changesSQL = String.format("SELECT %s, %s, %s FROM %s WHERE %s > ? ORDER BY %s", field1,
+                configProps.getProperty("database-table-5-field-2"), configProps.getProperty("database-table-5-field-3"),
+                tableName, field1, field1);
+        tables.add(books);
+        tables.add(members);
+        tables.add(loans);
+    }
+
+    /**
+     * Método del patrón singleton para obtener la instancia única de clase
+     *
+     * @return Instancia de clase
+     */
+    public static Replica getInstance() {
+        return instance;
+    }
+
+    /**
+     * Método getter del indicador de uso de la copia
+     *
+     * @return Verdadero si las lecturas se sirven desde la copia en memoria
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Método para poner al día las copias antes de una lectura: las carga
+     * la primera vez y después aplica el registro de cambios si ha pasado
+     * la antigüedad máxima desde su última consulta
+     *
+     * @param currentUser Objeto de usuario con sus datos
+     *                    de acceso a la base de datos
+     * @return Verdadero si la lectura puede servirse desde la copia,
+     * falso si la copia no se usa o no se ha podido poner al día
+     */
+    public synchronized boolean sync(User currentUser) {
+        if (!enabled || unlogged) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        if (loaded && now - refreshedAt <= maxStale) {
+            return true;
+        }
+
+        try (Connection con = ConnectionPool.getInstance().getConnection(currentUser)) {
+            if (!loaded) {
+                try (PreparedStatement pStmt = con.prepareStatement(triggerSQL)) {
+                    pStmt.setString(1, configProps.getProperty("database-name").toUpperCase(Locale.ROOT));
+                    pStmt.setString(2, (configProps.getProperty("database-table-1") + "_INSERT_TRG").toUpperCase(Locale.ROOT));
+                    try (ResultSet rs = pStmt.executeQuery()) {
+                        rs.next();
+                        unlogged = rs.getInt(1) == 0;
+                    }
+                }
+                if (unlogged) {
+                    return false;
+                }
+                try (PreparedStatement pStmt = con.prepareStatement(lastSQL);
+                     ResultSet rs = pStmt.executeQuery()) {
+                    rs.next();
+                    lastChange = rs.getInt(1);
+                }
+                for (TableReplica<?> table : tables) {
+                    table.load(con);
+                }
+                loaded = true;
+            } else {
+                refresh(con);
+            }
+            refreshedAt = now;
+            return true;
+        } catch (SQLException sqle) {
+            System.err.println(sqle.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Método para aplicar a las copias los cambios registrados
+     * tras la última ID aplicada
+     *
+     * @param con Conexión con la base de datos
+     * @throws SQLException Excepción en la lectura de las tablas
+     */
+    private void refresh(Connection con) throws SQLException {
+        List<Set<Integer>> changed = new ArrayList<>();
+        for (int i = 0; i < tables.size(); i++) {
+            changed.add(new HashSet<>());
+        }
+        int last = lastChange;
+        try (PreparedStatement pStmt = con.prepareStatement(changesSQL)) {
+            pStmt.setInt(1, lastChange);
+            try (ResultSet rs = pStmt.executeQuery()) {
+                while (rs.next()) {
+                    last = rs.getInt(1);
+                    int table = rs.getInt(2);
+                    if (table >= 1 && table <= tables.size()) {
+                        changed.get(table - 1).add(rs.getInt(3));
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < tables.size(); i++) {
+            tables.get(i).refresh(con, changed.get(i));
+        }
+        lastChange = last;
+    }
+
+    /**
+     * Método para caducar las copias tras una modificación hecha
+     * desde las clases DAO, de forma que la siguiente lectura consulte
+     * el registro de cambios
+     */
+    public synchronized void expire() {
+        refreshedAt = 0;
+    }
+
+    /**
+     * Método para descartar las copias, que se cargan de nuevo
+     * en la siguiente lectura, al cambiar de base de datos
+     */
+    public synchronized void reset() {
+        loaded = false;
+        unlogged = false;
+        refreshedAt = 0;
+    }
+
+    /**
+     * Método getter de la copia de la tabla de Libros
+     *
+     * @return Copia en memoria de los libros
+     */
+    TableReplica<Book> books() {
+        return books;
+    }
+
+    /**
+     * Método getter de la copia de la tabla de Socios
+     *
+     * @return Copia en memoria de los socios
+     */
+    TableReplica<Member> members() {
+        return members;
+    }
+
+    /**
+     * Método getter de la copia de la tabla de Préstamos
+     *
+     * @return Copia en memoria de los préstamos
+     */
+    TableReplica<Loan> loans() {
+        return loans;
+    }
+}
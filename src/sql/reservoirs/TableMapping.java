@@ -0,0 +1,393 @@
+package sql.reservoirs;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Clase de correspondencia entre una tabla de datos y su clase de objetos,
+ * común a todas las clases DAO
+ * <p>
+ * Los nombres de la tabla y de sus columnas se leen una sola vez del
+ * archivo de propiedades, y con ellos se componen al crear la correspondencia
+ * todas las sentencias SQL de recuento, lectura, alta, baja y paginación;
+ * como el conjunto de conexiones guarda las sentencias preparadas por su
+ * texto, cada una se prepara en el servidor una vez por conexión y las
+ * llamadas no vuelven a componer texto SQL. La conversión entre filas
+ * y objetos se da por columnas, en el orden de la tabla con la ID primero
+ *
+ * @param <T> Clase de los objetos de la tabla
+ * @author JuanGS
+ * @version 1.0
+ * @since 10-2026
+ */
+public final class TableMapping<T> {
+    /**
+     * Número de IDs por consulta al recuperar varias entradas por su ID
+     */
+    public static final int ID_BLOCK = 64;
+    /**
+     * Ruta completa de la tabla de datos
+     */
+    private final String tableName;
+    /**
+     * Nombres de las columnas de la tabla, con la ID primero
+     */
+    private final String[] columns;
+    /**
+     * Conversión de una fila, con las columnas en su orden, en objeto
+     */
+    private final Cursor.RowReader<T> reader;
+    /**
+     * Conversión de un objeto en los valores de sus columnas, en su orden
+     */
+    private final Function<T, Object[]> writer;
+    /**
+     * Posiciones de las columnas de orden de cada listado, según su número desde 1
+     */
+    private final int[][] positions;
+    /**
+     * Columnas de orden de cada listado, según su número desde 1
+     */
+    private final String[][] orders;
+    /**
+     * Consulta del número de entradas y la ID máxima en la tabla de recuentos
+     */
+    private final String countSQL;
+    /**
+     * Consulta de todas las entradas
+     */
+    private final String selectSQL;
+    /**
+     * Consulta de todas las entradas en orden de ID
+     */
+    private final String orderedSQL;
+    /**
+     * Consulta de una entrada por su ID
+     */
+    private final String selectIdSQL;
+    /**
+     * Consulta de un bloque de entradas por sus IDs
+     */
+    private final String selectIdsSQL;
+    /**
+     * Alta de una entrada, con todas las columnas salvo la ID
+     */
+    private final String insertSQL;
+    /**
+     * Baja de una entrada por su ID
+     */
+    private final String deleteSQL;
+    /**
+     * Consultas de la primera página de cada listado
+     */
+    private final String[] firstPageSQL;
+    /**
+     * Consultas de las páginas siguientes de cada listado
+     */
+    private final String[] nextPageSQL;
+
+    /**
+     * Constructor de la correspondencia
+     *
+     * @param configProps Lista de propiedades del programa
+     * @param tableKey    Propiedad con el nombre de la tabla, acabada en
+     *                    su código en la tabla de recuentos
+     * @param fieldKeys   Propiedades con los nombres de las columnas, con la ID primero
+     * @param orders      Posiciones de las columnas de orden de cada listado,
+     *                    acabadas en la ID
+     * @param reader      Conversión de una fila en objeto
+     * @param writer      Conversión de un objeto en los valores de sus columnas
+     */
+    public TableMapping(Properties configProps, String tableKey, String[] fieldKeys, int[][] orders,
+                        Cursor.RowReader<T> reader, Function<T, Object[]> writer) {
+        this.tableName = configProps.getProperty("database-name") + "." + configProps.getProperty(tableKey);
+        this.columns = Arrays.stream(fieldKeys).map(configProps::getProperty).toArray(String[]::new);
+        this.reader = reader;
+        this.writer = writer;
+        this.positions = orders;
+        this.orders = Arrays.stream(orders)
+                .map(order -> Arrays.stream(order).mapToObj(i -> columns[i]).toArray(String[]::new))
+                .toArray(String[][]::new);
+
+        String id = columns[0];
+        String select = String.format("SELECT %s FROM %s", String.join(", ", columns), tableName);
+        String[] data = Arrays.copyOfRange(columns, 1, columns.length);
+        countSQL = String.format("SELECT %s, %s FROM %s.%s WHERE %s = %s",
+                configProps.getProperty("database-table-6-field-2"), configProps.getProperty("database-table-6-field-3"),
+                configProps.getProperty("database-name"), configProps.getProperty("database-table-6"),
+                configProps.getProperty("database-table-6-field-1"), tableKey.substring(tableKey.lastIndexOf('-') + 1));
+        selectSQL = select;
+        orderedSQL = String.format("%s ORDER BY %s", select, id);
+        selectIdSQL = String.format("%s WHERE %s = ?", select, id);
+        selectIdsSQL = String.format("%s WHERE %s IN (%s) ORDER BY %s",
+                select, id, String.join(",", Collections.nCopies(ID_BLOCK, "?")), id);
+        insertSQL = String.format("INSERT INTO %s (%s) VALUES (%s)", tableName, String.join(", ", data),
+                String.join(",", Collections.nCopies(data.length, "?")));
+        deleteSQL = String.format("DELETE FROM %s WHERE %s = ?", tableName, id);
+        firstPageSQL = new String[this.orders.length];
+        nextPageSQL = new String[this.orders.length];
+        for (int i = 0; i < this.orders.length; i++) {
+            firstPageSQL[i] = Keyset.page(select, true, this.orders[i]);
+            nextPageSQL[i] = Keyset.page(select, false, this.orders[i]);
+        }
+    }
+
+    /**
+     * Método getter de la ruta completa de la tabla
+     *
+     * @return Ruta completa de la tabla de datos
+     */
+    public String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * Método getter del nombre de una columna
+     *
+     * @param i Posición de la columna, desde 0 para la ID
+     * @return Nombre de la columna
+     */
+    public String getColumn(int i) {
+        return columns[i];
+    }
+
+    /**
+     * Método getter de la sentencia de baja por ID, para usarla en lotes
+     *
+     * @return Sentencia SQL con la ID como único parámetro
+     */
+    public String getDeleteSQL() {
+        return deleteSQL;
+    }
+
+    /**
+     * Método getter de las columnas de orden de un listado
+     *
+     * @param order Número del orden del listado; fuera de rango, el primero
+     * @return Columnas de orden del listado
+     */
+    public String[] getOrder(int order) {
+        return Keyset.orderBy(orders, order);
+    }
+
+    /**
+     * Método para leer el número de entradas y la ID máxima de la tabla
+     * desde su fila en la tabla de recuentos, que mantienen los disparadores
+     * de la base de datos en la misma transacción que cada alta y baja
+     *
+     * @param con Conexión con la base de datos
+     * @return Número de entradas e ID máxima, 0 si la tabla está vacía
+     * @throws SQLException Excepción en la lectura de la tabla
+     */
+    public int[] count(Connection con) throws SQLException {
+        try (PreparedStatement pStmt = con.prepareStatement(countSQL);
+             ResultSet rs = pStmt.executeQuery()) {
+            rs.next();
+            return new int[]{rs.getInt(1), rs.getInt(2)};
+        }
+    }
+
+    /**
+     * Método para leer todas las entradas de la tabla
+     *
+     * @param con Conexión con la base de datos
+     * @return Lista de objetos de las entradas
+     * @throws SQLException Excepción en la lectura de la tabla
+     */
+    public List<T> select(Connection con) throws SQLException {
+        try (PreparedStatement pStmt = con.prepareStatement(selectSQL)) {
+            return read(pStmt);
+        }
+    }
+
+    /**
+     * Método para recorrer todas las entradas de la tabla en orden de ID
+     *
+     * @param con       Conexión con la base de datos, que se cierra con el flujo
+     * @param fetchSize Número de filas por bloque leído del servidor
+     * @return Flujo de objetos, que debe cerrarse tras su uso
+     * @throws SQLException Excepción en la apertura de la consulta
+     */
+    public Stream<T> stream(Connection con, int fetchSize) throws SQLException {
+        return Cursor.stream(con, orderedSQL, fetchSize, reader);
+    }
+
+    /**
+     * Método para leer una entrada por su ID
+     *
+     * @param con Conexión con la base de datos
+     * @param ID  Identificación numérica de la entrada
+     * @return Lista con el objeto de la entrada, vacía si no existe
+     * @throws SQLException Excepción en la lectura de la tabla
+     */
+    public List<T> select(Connection con, int ID) throws SQLException {
+        try (PreparedStatement pStmt = con.prepareStatement(selectIdSQL)) {
+            pStmt.setInt(1, ID);
+            return read(pStmt);
+        }
+    }
+
+    /**
+     * Método para leer las entradas con las IDs dadas, por bloques
+     * de tamaño fijo para reutilizar la misma consulta preparada
+     *
+     * @param con Conexión con la base de datos
+     * @param IDs Identificaciones numéricas de las entradas, en orden ascendente
+     * @return Lista de objetos de las entradas que siguen en la tabla, en orden de ID
+     * @throws SQLException Excepción en la lectura de la tabla
+     */
+    public List<T> select(Connection con, int[] IDs) throws SQLException {
+        List<T> list = new ArrayList<>();
+        try (PreparedStatement pStmt = con.prepareStatement(selectIdsSQL)) {
+            for (int i = 0; i < IDs.length; i += ID_BLOCK) {
+                for (int j = 0; j < ID_BLOCK; j++) {
+                    pStmt.setInt(j + 1, IDs[Math.min(i + j, IDs.length - 1)]);
+                }
+                list.addAll(read(pStmt));
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Método para leer una página de un listado, tras la última
+     * entrada de la página anterior
+     *
+     * @param con   Conexión con la base de datos
+     * @param order Número del orden del listado; fuera de rango, el primero
+     * @param last  Último objeto de la página anterior, o nulo para la primera página
+     * @param size  Número máximo de entradas de la página
+     * @return Lista de objetos de la página
+     * @throws SQLException Excepción en la lectura de la tabla
+     */
+    public List<T> page(Connection con, int order, T last, int size) throws SQLException {
+        int i = order >= 1 && order <= orders.length ? order - 1 : 0;
+        try (PreparedStatement pStmt = con.prepareStatement(last == null ? firstPageSQL[i] : nextPageSQL[i])) {
+            Keyset.bind(pStmt, size, last == null ? new Object[0] : keys(order, last));
+            return read(pStmt);
+        }
+    }
+
+    /**
+     * Método para obtener los valores de las columnas de orden de un objeto
+     *
+     * @param order Número del orden del listado; fuera de rango, el primero
+     * @param t     Objeto de la tabla
+     * @return Valores de las columnas de orden, en su orden
+     */
+    public Object[] keys(int order, T t) {
+        Object[] values = writer.apply(t);
+        return Arrays.stream(positions[order >= 1 && order <= positions.length ? order - 1 : 0])
+                .mapToObj(i -> values[i]).toArray();
+    }
+
+    /**
+     * Método getter del número de órdenes de los listados
+     *
+     * @return Número de órdenes declarados
+     */
+    public int getOrderCount() {
+        return positions.length;
+    }
+
+    /**
+     * Método para obtener la ID de un objeto
+     *
+     * @param t Objeto de la tabla
+     * @return Identificación numérica del objeto
+     */
+    public int id(T t) {
+        return (Integer) writer.apply(t)[0];
+    }
+
+    /**
+     * Método para comparar objetos según las columnas de orden de un listado,
+     * igual que el ORDER BY de sus páginas; los textos se comparan por su
+     * código, como en la colación por defecto de Derby
+     *
+     * @param order Número del orden del listado; fuera de rango, el primero
+     * @return Comparador de objetos en el orden del listado
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Comparator<T> comparator(int order) {
+        return (t1, t2) -> {
+            Object[] keys1 = keys(order, t1);
+            Object[] keys2 = keys(order, t2);
+            for (int i = 0; i < keys1.length; i++) {
+                int c = ((Comparable) keys1[i]).compareTo(keys2[i]);
+                if (c != 0) {
+                    return c;
+                }
+            }
+            return 0;
+        };
+    }
+
+    /**
+     * Método para dar de alta una entrada con los valores de un objeto;
+     * su ID se ignora y la genera la base de datos
+     *
+     * @param con Conexión con la base de datos
+     * @param t   Objeto a dar de alta
+     * @return ID generada para la nueva entrada, o -1 si no se ha dado de alta
+     * @throws SQLException Excepción en la escritura de la tabla
+     */
+    public int insert(Connection con, T t) throws SQLException {
+        Object[] values = writer.apply(t);
+        try (PreparedStatement pStmt = con.prepareStatement(insertSQL, Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 1; i < values.length; i++) {
+                pStmt.setObject(i, values[i]);
+            }
+            if (pStmt.executeUpdate() != 1) {
+                return -1;
+            }
+            try (ResultSet keys = pStmt.getGeneratedKeys()) {
+                keys.next();
+                return keys.getInt(1);
+            }
+        }
+    }
+
+    /**
+     * Método para dar de baja una entrada por su ID
+     *
+     * @param con Conexión con la base de datos
+     * @param ID  Identificación numérica de la entrada
+     * @return Verdadero si se ha dado de baja
+     * @throws SQLException Excepción en la escritura de la tabla
+     */
+    public boolean delete(Connection con, int ID) throws SQLException {
+        try (PreparedStatement pStmt = con.prepareStatement(deleteSQL)) {
+            pStmt.setInt(1, ID);
+            return pStmt.executeUpdate() == 1;
+        }
+    }
+
+    /**
+     * Método para convertir en objetos las filas de una consulta preparada
+     *
+     * @param pStmt Consulta con sus parámetros asignados
+     * @return Lista de objetos de las filas
+     * @throws SQLException Excepción en la lectura de la tabla
+     */
+    private List<T> read(PreparedStatement pStmt) throws SQLException {
+        List<T> list = new ArrayList<>();
+        try (ResultSet rs = pStmt.executeQuery()) {
+            while (rs.next()) {
+                list.add(reader.read(rs));
+            }
+        }
+        return list;
+    }
+}
@@ -0,0 +1,145 @@
+package sql.reservoirs;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Clase de copia en memoria de una tabla de datos, con sus entradas
+ * por ID y ordenadas según cada orden de los listados
+ * <p>
+ * La copia se carga entera una vez y después se actualiza releyendo
+ * solo las entradas cuyas IDs figuran en el registro de cambios;
+ * una ID que ya no está en la tabla se retira de la copia
+ *
+ * @param <T> Clase de los objetos de la tabla
+ * @author JuanGS
+ * @version 1.0
+ * @since 10-2026
+ */
+public final class TableReplica<T> {
+    /**
+     * Correspondencia de la tabla copiada
+     */
+    private final TableMapping<T> mapping;
+    /**
+     * Entradas de la copia por su ID
+     */
+    private final Map<Integer, T> rows = new HashMap<>();
+    /**
+     * Entradas de la copia en cada orden de los listados, desde el primero
+     */
+    private final List<NavigableSet<T>> orders = new ArrayList<>();
+
+    /**
+     * Constructor de la copia, vacía hasta su carga
+     *
+     * @param mapping Correspondencia de la tabla copiada
+     */
+    public TableReplica(TableMapping<T> mapping) {
+        this.mapping = mapping;
+        for (int i = 1; i <= mapping.getOrderCount(); i++) {
+            orders.add(new TreeSet<>(mapping.comparator(i)));
+        }
+    }
+
+    /**
+     * Método para cargar la tabla entera, descartando la copia anterior
+     *
+     * @param con Conexión con la base de datos
+     * @throws SQLException Excepción en la lectura de la tabla
+     */
+    public synchronized void load(Connection con) throws SQLException {
+        List<T> list = mapping.select(con);
+        rows.clear();
+        orders.forEach(NavigableSet::clear);
+        list.forEach(this::put);
+    }
+
+    /**
+     * Método para releer de la tabla las entradas cambiadas
+     *
+     * @param con Conexión con la base de datos
+     * @param IDs Identificaciones numéricas de las entradas cambiadas
+     * @throws SQLException Excepción en la lectura de la tabla
+     */
+    public synchronized void refresh(Connection con, Collection<Integer> IDs) throws SQLException {
+        if (IDs.isEmpty()) {
+            return;
+        }
+        List<T> list = mapping.select(con, IDs.stream().mapToInt(Integer::intValue).toArray());
+        for (int ID : IDs) {
+            T t = rows.remove(ID);
+            if (t != null) {
+                orders.forEach(order -> order.remove(t));
+            }
+        }
+        list.forEach(this::put);
+    }
+
+    /**
+     * Método para añadir una entrada a la copia
+     *
+     * @param t Entrada leída de la tabla
+     */
+    private void put(T t) {
+        rows.put(mapping.id(t), t);
+        orders.forEach(order -> order.add(t));
+    }
+
+    /**
+     * Método para contar las entradas de la copia
+     *
+     * @return Número de entradas e ID máxima, 0 si la copia está vacía
+     */
+    public synchronized int[] count() {
+        NavigableSet<T> byID = orders.get(0);
+        return new int[]{rows.size(), byID.isEmpty() ? 0 : mapping.id(byID.last())};
+    }
+
+    /**
+     * Método para buscar una entrada de la copia por su ID
+     *
+     * @param ID Identificación numérica de la entrada
+     * @return Entrada con esa ID, o nulo si no existe
+     */
+    public synchronized T get(int ID) {
+        return rows.get(ID);
+    }
+
+    /**
+     * Método para obtener todas las entradas de la copia en orden de ID
+     *
+     * @return Lista de las entradas
+     */
+    public synchronized List<T> list() {
+        return new ArrayList<>(orders.get(0));
+    }
+
+    /**
+     * Método para obtener una página de entradas de la copia,
+     * igual que la paginación por claves en la tabla
+     *
+     * @param order Número del orden del listado; fuera de rango, el primero
+     * @param last  Última entrada de la página anterior, o nulo para la primera
+     * @param size  Número máximo de entradas de la página
+     * @return Lista de las entradas de la página
+     */
+    public synchronized List<T> page(int order, T last, int size) {
+        NavigableSet<T> set = orders.get(order >= 1 && order <= orders.size() ? order - 1 : 0);
+        List<T> page = new ArrayList<>();
+        for (T t : last == null ? set : set.tailSet(last, false)) {
+            if (page.size() == size) {
+                break;
+            }
+            page.add(t);
+        }
+        return page;
+    }
+}
@@ -0,0 +1,82 @@
+package sql.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Clase de análisis de texto para el índice de texto completo,
+ * válida para títulos y nombres en español e inglés
+ * <p>
+ * El texto se pasa a minúsculas sin tildes ni diéresis, se separa
+ * en palabras, se descartan las palabras vacías de ambos idiomas
+ * y se reducen los plurales regulares a su singular, de modo que
+ * "Canciones" y "canción" o "Stories" y "story" dan el mismo término
+ *
+ * @author JuanGS
+ * @version 1.0
+ * @since 10-2026
+ */
+public final class Analyzer {
+    /**
+     * Palabras vacías en español e inglés, ya sin tildes
+     */
+    private static final Set<String> STOPWORDS = Set.of(
+            "el", "la", "los", "las", "lo", "un", "una", "unos", "unas", "de", "del", "al", "a", "y", "e", "o", "u",
+            "en", "por", "para", "con", "sin", "sobre", "entre", "que", "se", "su", "sus", "mi", "tu",
+            "the", "an", "of", "and", "or", "in", "on", "at", "to", "for", "with", "from", "by", "is", "its", "my");
+
+    /**
+     * Constructor privado de la clase para evitar instancias
+     */
+    private Analyzer() {
+    }
+
+    /**
+     * Método para obtener los términos de un texto, en su orden
+     * y con sus repeticiones
+     *
+     * @param text Texto a analizar
+     * @return Lista de términos del texto
+     */
+    public static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String plain = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "");
+        for (String word : plain.split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty() && !STOPWORDS.contains(word)) {
+                tokens.add(stem(word));
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Método para reducir los plurales regulares de español
+     * e inglés a su singular
+     *
+     * @param word Palabra en minúsculas y sin tildes
+     * @return Raíz de la palabra
+     */
+    private static String stem(String word) {
+        int n = word.length();
+        if (n > 4 && word.endsWith("ies")) {
+            return word.substring(0, n - 3) + "y";
+        }
+        if (n > 4 && word.endsWith("es") && "dlnrjz".indexOf(word.charAt(n - 3)) >= 0) {
+            return word.substring(0, n - 2);
+        }
+        if (n > 3 && word.endsWith("ces")) {
+            return word.substring(0, n - 3) + "z";
+        }
+        if (n > 3 && word.endsWith("s") && !word.endsWith("ss") && !word.endsWith("us") && !word.endsWith("is")) {
+            return word.substring(0, n - 1);
+        }
+        return word;
+    }
+}
@@ -0,0 +1,1021 @@
+package sql.search;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Clase de índice de texto completo en disco, con ordenación
+ * de resultados por relevancia según el modelo BM25
+ * <p>
+ * El índice se guarda en una carpeta como una serie de segmentos
+ * inmutables. Las altas se acumulan en memoria y se anotan en un diario,
+ * para no perderlas si el programa se cierra, hasta que se vuelcan
+ * en un segmento nuevo; las bajas se anotan aparte y se purgan al fusionar
+ * los segmentos. De cada segmento se mantienen en memoria el diccionario
+ * de términos y la longitud de sus documentos; las listas de cada término
+ * se guardan en orden de ID y se leen del disco por bloques a medida
+ * que la búsqueda las recorre
+ * <p>
+ * Cada columna indexada tiene un peso que multiplica las apariciones
+ * de sus términos; la búsqueda devuelve solo las IDs de los k documentos
+ * más relevantes
+ *
+ * @author JuanGS
+ * @version 1.0
+ * @since 10-2026
+ */
+public final class FullTextIndex implements Closeable {
+    /**
+     * Marca de comienzo de los ficheros de segmento, que cambia con su formato
+     */
+    private static final int MAGIC = 0x47414232;
+    /**
+     * Número de pares {ID, frecuencia} leídos del disco de una vez al recorrer una lista
+     */
+    private static final int BLOCK = 128;
+    /**
+     * Número de segmentos a partir del cual se fusionan en uno
+     */
+    private static final int MAX_SEGMENTS = 8;
+    /**
+     * Parámetro de saturación de frecuencias de BM25
+     */
+    private static final double K1 = 1.2;
+    /**
+     * Parámetro de normalización por longitud de BM25
+     */
+    private static final double B = 0.75;
+    /**
+     * Carpeta del índice
+     */
+    private final Path dir;
+    /**
+     * Peso de cada columna indexada
+     */
+    private final int[] weights;
+    /**
+     * Número de altas en memoria a partir del cual se vuelcan a un segmento
+     */
+    private final int flushSize;
+    /**
+     * Segmentos abiertos, del más antiguo al más reciente
+     */
+    private final List<Segment> segments = new ArrayList<>();
+    /**
+     * Listas en memoria de {ID, frecuencia} de cada término de las altas sin volcar
+     */
+    private final Map<String, List<int[]>> buffer = new HashMap<>();
+    /**
+     * Longitud de los documentos de las altas sin volcar, ordenada por su ID
+     */
+    private final NavigableMap<Integer, Integer> bufferLengths = new TreeMap<>();
+    /**
+     * IDs de los documentos dados de baja que siguen en algún segmento
+     */
+    private final Set<Integer> deleted = new HashSet<>();
+    /**
+     * Diario de altas y bajas sin volcar
+     */
+    private Writer journal;
+    /**
+     * Número del siguiente segmento
+     */
+    private int nextSegment;
+    /**
+     * Suma de las longitudes de los documentos vigentes
+     */
+    private long totalLength;
+    /**
+     * Número de documentos vigentes
+     */
+    private int nDocs;
+    /**
+     * Mayor ID de los documentos vigentes; 0 si no hay ninguno
+     */
+    private int maxID;
+
+    /**
+     * Constructor de la clase, que abre el índice guardado en una
+     * carpeta, o lo crea vacío, y aplica el diario pendiente; un índice
+     * que no se puede leer, por ser de un formato anterior o estar dañado,
+     * se descarta y queda vacío, para rehacerlo desde la tabla
+     *
+     * @param dir       Carpeta del índice
+     * @param weights   Peso de cada columna indexada
+     * @param flushSize Número de altas en memoria a partir del cual se vuelcan a un segmento
+     * @throws IOException Excepción en el acceso a la carpeta
+     */
+    public FullTextIndex(Path dir, int[] weights, int flushSize) throws IOException {
+        this.dir = dir;
+        this.weights = weights.clone();
+        this.flushSize = flushSize;
+        Files.createDirectories(dir);
+        try {
+            open();
+        } catch (IOException ioe) {
+            discard();
+        }
+        journal = Files.newBufferedWriter(dir.resolve("journal"), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Método interno para abrir los segmentos de la carpeta,
+     * leer las bajas y aplicar el diario pendiente
+     *
+     * @throws IOException Excepción en la lectura del índice
+     */
+    private void open() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.filter(path -> path.getFileName().toString().matches("seg-\\d+\\.idx"))
+                    .sorted(Comparator.comparingInt(FullTextIndex::segmentNumber)).collect(Collectors.toList())) {
+                segments.add(new Segment(file));
+                nextSegment = segmentNumber(file) + 1;
+            }
+        }
+        Path deletes = dir.resolve("deletes");
+        if (Files.exists(deletes)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(deletes)))) {
+                for (int i = in.readInt(); i > 0; i--) {
+                    deleted.add(in.readInt());
+                }
+            }
+        }
+        for (Segment segment : segments) {
+            segment.lengths.forEach((ID, length) -> {
+                if (!deleted.contains(ID)) {
+                    nDocs++;
+                    totalLength += length;
+                }
+            });
+        }
+        maxID = findMaxID();
+        replay(dir.resolve("journal"));
+    }
+
+    /**
+     * Método interno para descartar el índice abierto y borrar sus ficheros
+     *
+     * @throws IOException Excepción en el borrado de los ficheros
+     */
+    private void discard() throws IOException {
+        for (Segment segment : segments) {
+            segment.close();
+        }
+        segments.clear();
+        buffer.clear();
+        bufferLengths.clear();
+        deleted.clear();
+        nDocs = 0;
+        totalLength = 0;
+        maxID = 0;
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.collect(Collectors.toList())) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * Método getter del número de documentos vigentes
+     *
+     * @return Número de documentos del índice
+     */
+    public synchronized int size() {
+        return nDocs;
+    }
+
+    /**
+     * Método getter de la mayor ID de los documentos vigentes
+     *
+     * @return Mayor ID del índice, o 0 si está vacío
+     */
+    public synchronized int maxID() {
+        return maxID;
+    }
+
+    /**
+     * Método para dar de alta un documento
+     *
+     * @param ID     Identificación numérica del documento
+     * @param fields Texto de las columnas del documento
+     * @throws IOException Excepción en la escritura del índice
+     */
+    public synchronized void add(int ID, String... fields) throws IOException {
+        addAll(Map.of(ID, fields));
+    }
+
+    /**
+     * Método para dar de alta varios documentos, anotándolos
+     * juntos en el diario e indexándolos en orden de ID
+     *
+     * @param entries Texto de las columnas de cada documento, según su ID
+     * @throws IOException Excepción en la escritura del índice
+     */
+    public synchronized void addAll(Map<Integer, String[]> entries) throws IOException {
+        Map<Integer, String[]> ordered = new TreeMap<>(entries);
+        for (Map.Entry<Integer, String[]> entry : ordered.entrySet()) {
+            StringBuilder line = new StringBuilder("+\t").append(entry.getKey());
+            for (String field : entry.getValue()) {
+                line.append('\t').append(field == null ? "" : field.replaceAll("[\\t\\r\\n]", " "));
+            }
+            journal.write(line.append('\n').toString());
+        }
+        journal.flush();
+        ordered.forEach(this::index);
+        if (bufferLengths.size() >= flushSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Método para dar de baja un documento
+     *
+     * @param ID Identificación numérica del documento
+     * @throws IOException Excepción en la escritura del índice
+     */
+    public synchronized void delete(int ID) throws IOException {
+        journal.write("-\t" + ID + "\n");
+        journal.flush();
+        unindex(ID);
+    }
+
+    /**
+     * Método para rehacer el índice completo a partir
+     * de los documentos dados, descartando el anterior
+     *
+     * @param entries Texto de las columnas de cada documento, según su ID
+     * @throws IOException Excepción en la escritura del índice
+     */
+    public synchronized void rebuild(Map<Integer, String[]> entries) throws IOException {
+        journal.close();
+        for (Segment segment : segments) {
+            segment.close();
+            Files.deleteIfExists(segment.file);
+        }
+        segments.clear();
+        buffer.clear();
+        bufferLengths.clear();
+        deleted.clear();
+        nDocs = 0;
+        totalLength = 0;
+        maxID = 0;
+        Files.deleteIfExists(dir.resolve("deletes"));
+        journal = Files.newBufferedWriter(dir.resolve("journal"), StandardCharsets.UTF_8);
+        new TreeMap<>(entries).forEach(this::index);
+        flush();
+    }
+
+    /**
+     * Método de búsqueda de los documentos más relevantes para un texto
+     * <p>
+     * Las listas de los términos se recorren a la vez en orden de ID con
+     * el algoritmo MaxScore, leyendo por bloques la lista de cada segmento
+     * y uniéndolas por ID sin reunirlas en memoria: cada término tiene una
+     * cota de su mayor
+     * puntuación posible, y los términos cuyas cotas sumadas no alcanzan
+     * la puntuación del peor documento de los k mejores no proponen
+     * documentos, solo completan la puntuación de los que proponen
+     * los demás; un documento deja de puntuarse en cuanto ni sumando
+     * las cotas que le faltan puede entrar entre los k mejores
+     *
+     * @param query Texto que buscar
+     * @param k     Número máximo de documentos devueltos
+     * @return IDs de los documentos encontrados, del más al menos relevante
+     * @throws IOException Excepción en la lectura del índice
+     */
+    public synchronized int[] search(String query, int k) throws IOException {
+        if (k <= 0) {
+            return new int[0];
+        }
+        double avgLength = nDocs == 0 ? 1 : (double) totalLength / nDocs;
+        List<TermCursor> terms = new ArrayList<>();
+        for (String term : new LinkedHashSet<>(Analyzer.tokens(query))) {
+            List<PostingCursor> lists = new ArrayList<>();
+            int df = 0;
+            int maxTf = 0;
+            for (Segment segment : segments) {
+                long[] entry = segment.dictionary.get(term);
+                if (entry != null) {
+                    lists.add(new PostingCursor(segment.raf, null, entry[1], (int) entry[0]));
+                    df += (int) entry[0];
+                    maxTf = Math.max(maxTf, (int) entry[2]);
+                }
+            }
+            List<int[]> postings = buffer.get(term);
+            if (postings != null) {
+                lists.add(new PostingCursor(null, postings, 0, postings.size()));
+                df += postings.size();
+                for (int[] posting : postings) {
+                    maxTf = Math.max(maxTf, posting[1]);
+                }
+            }
+            if (!lists.isEmpty()) {
+                TermCursor cursor = new TermCursor(lists, deleted, df, maxTf, nDocs, avgLength);
+                if (cursor.doc() != Integer.MAX_VALUE) {
+                    terms.add(cursor);
+                }
+            }
+        }
+        terms.sort(Comparator.comparingDouble(term -> term.bound));
+        double[] bounds = new double[terms.size() + 1];
+        for (int i = 0; i < terms.size(); i++) {
+            bounds[i + 1] = bounds[i] + terms.get(i).bound;
+        }
+
+// Documents come in increasing ID order, so one that ties the worst of the top k never displaces it
+        Comparator<double[]> worst = Comparator.<double[]>comparingDouble(entry -> entry[1])
+                .thenComparing(entry -> entry[0], Comparator.reverseOrder());
+        PriorityQueue<double[]> top = new PriorityQueue<>(worst);
+        double threshold = 0;
+        int essential = 0;
+        while (true) {
+            while (essential < terms.size() && bounds[essential + 1] <= threshold) {
+                essential++;
+            }
+            int ID = Integer.MAX_VALUE;
+            for (int i = essential; i < terms.size(); i++) {
+                ID = Math.min(ID, terms.get(i).doc());
+            }
+            if (ID == Integer.MAX_VALUE) {
+                break;
+            }
+            double score = 0;
+            for (int i = essential; i < terms.size(); i++) {
+                if (terms.get(i).doc() == ID) {
+                    score += terms.get(i).score(length(ID));
+                    terms.get(i).next();
+                }
+            }
+            int i = essential - 1;
+            while (i >= 0 && score + bounds[i + 1] > threshold) {
+                if (terms.get(i).advance(ID)) {
+                    score += terms.get(i).score(length(ID));
+                    terms.get(i).next();
+                }
+                i--;
+            }
+            if (i < 0 && score > threshold) {
+                top.add(new double[]{ID, score});
+                if (top.size() > k) {
+                    top.poll();
+                }
+                if (top.size() == k) {
+                    threshold = top.peek()[1];
+                }
+            }
+        }
+
+        int[] found = new int[top.size()];
+        for (int i = found.length - 1; i >= 0; i--) {
+            found[i] = (int) top.poll()[0];
+        }
+        return found;
+    }
+
+    /**
+     * Método para volcar las altas en memoria a un segmento nuevo,
+     * fusionando los segmentos si son demasiados, y vaciar el diario
+     *
+     * @throws IOException Excepción en la escritura del índice
+     */
+    public synchronized void flush() throws IOException {
+        if (!bufferLengths.isEmpty()) {
+            Path file = dir.resolve("seg-" + nextSegment++ + ".idx");
+            write(file, bufferLengths, buffer);
+            segments.add(new Segment(file));
+            buffer.clear();
+            bufferLengths.clear();
+        }
+        if (segments.size() > MAX_SEGMENTS) {
+            merge();
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(dir.resolve("deletes"))))) {
+            out.writeInt(deleted.size());
+            for (int ID : deleted) {
+                out.writeInt(ID);
+            }
+        }
+        journal.close();
+        journal = Files.newBufferedWriter(dir.resolve("journal"), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Método para volcar las altas pendientes y cerrar los ficheros del índice
+     *
+     * @throws IOException Excepción en la escritura del índice
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        flush();
+        journal.close();
+        for (Segment segment : segments) {
+            segment.close();
+        }
+    }
+
+    /**
+     * Método interno para añadir un documento a las altas en memoria
+     *
+     * @param ID     Identificación numérica del documento
+     * @param fields Texto de las columnas del documento
+     */
+    private void index(int ID, String[] fields) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = 0;
+        for (int i = 0; i < weights.length && i < fields.length; i++) {
+            for (String term : Analyzer.tokens(fields[i])) {
+                frequencies.merge(term, weights[i], Integer::sum);
+                length += weights[i];
+            }
+        }
+        frequencies.forEach((term, tf) -> {
+            List<int[]> postings = buffer.computeIfAbsent(term, key -> new ArrayList<>());
+            int i = postings.size();
+            while (i > 0 && postings.get(i - 1)[0] > ID) {
+                i--;
+            }
+            postings.add(i, new int[]{ID, tf});
+        });
+        bufferLengths.put(ID, length);
+        nDocs++;
+        totalLength += length;
+        maxID = Math.max(maxID, ID);
+    }
+
+    /**
+     * Método interno para retirar un documento, de las altas en memoria
+     * si aún no se ha volcado o marcándolo como baja si está en un segmento
+     *
+     * @param ID Identificación numérica del documento
+     */
+    private void unindex(int ID) {
+        Integer length = bufferLengths.remove(ID);
+        if (length != null) {
+            buffer.values().forEach(postings -> postings.removeIf(posting -> posting[0] == ID));
+            buffer.values().removeIf(List::isEmpty);
+        } else {
+            for (Segment segment : segments) {
+                if (segment.lengths.containsKey(ID) && deleted.add(ID)) {
+                    length = segment.lengths.get(ID);
+                }
+            }
+        }
+        if (length != null) {
+            nDocs--;
+            totalLength -= length;
+            if (ID == maxID) {
+                maxID = findMaxID();
+            }
+        }
+    }
+
+    /**
+     * Método para buscar la mayor ID de los documentos vigentes, recorriendo
+     * cada segmento desde su mayor ID hasta la primera que no esté de baja
+     *
+     * @return Mayor ID del índice, o 0 si está vacío
+     */
+    private int findMaxID() {
+        int max = bufferLengths.isEmpty() ? 0 : bufferLengths.lastKey();
+        for (Segment segment : segments) {
+            for (int ID : segment.lengths.descendingKeySet()) {
+                if (ID <= max) {
+                    break;
+                } else if (!deleted.contains(ID)) {
+                    max = ID;
+                    break;
+                }
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Método para obtener la longitud de un documento
+     *
+     * @param ID Identificación numérica del documento
+     * @return Longitud ponderada del documento
+     */
+    private int length(int ID) {
+        Integer length = bufferLengths.get(ID);
+        for (int i = segments.size() - 1; length == null && i >= 0; i--) {
+            length = segments.get(i).lengths.get(ID);
+        }
+        return length == null ? 0 : length;
+    }
+
+    /**
+     * Método para aplicar las altas y bajas anotadas en el diario
+     * que no llegaron a volcarse
+     *
+     * @param file Fichero del diario
+     * @throws IOException Excepción en la lectura del diario
+     */
+    private void replay(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            String[] parts = line.split("\t", -1);
+            if (parts.length >= 2 && parts[0].equals("+")) {
+                index(Integer.parseInt(parts[1]), Arrays.copyOfRange(parts, 2, parts.length));
+            } else if (parts.length == 2 && parts[0].equals("-")) {
+                unindex(Integer.parseInt(parts[1]));
+            }
+        }
+    }
+
+    /**
+     * Método para fusionar todos los segmentos en uno solo,
+     * purgando los documentos dados de baja
+     *
+     * @throws IOException Excepción en la escritura del índice
+     */
+    private void merge() throws IOException {
+        Map<Integer, Integer> lengths = new TreeMap<>();
+        Map<String, List<int[]>> postings = new HashMap<>();
+        for (Segment segment : segments) {
+            segment.lengths.forEach((ID, length) -> {
+                if (!deleted.contains(ID)) {
+                    lengths.put(ID, length);
+                }
+            });
+            for (String term : segment.dictionary.keySet()) {
+                List<int[]> list = new ArrayList<>();
+                segment.postings(term, list);
+                list.removeIf(posting -> deleted.contains(posting[0]));
+                if (!list.isEmpty()) {
+                    postings.computeIfAbsent(term, key -> new ArrayList<>()).addAll(list);
+                }
+            }
+        }
+        Path file = dir.resolve("seg-" + nextSegment++ + ".idx");
+        write(file, lengths, postings);
+        for (Segment segment : segments) {
+            segment.close();
+            Files.deleteIfExists(segment.file);
+        }
+        segments.clear();
+        segments.add(new Segment(file));
+        deleted.clear();
+    }
+
+    /**
+     * Método para escribir un segmento: tabla de documentos, listas
+     * de cada término en orden de ID y diccionario de términos con
+     * el tamaño, la posición y la mayor frecuencia de su lista
+     *
+     * @param file     Fichero del segmento
+     * @param lengths  Longitud de cada documento, según su ID
+     * @param postings Listas de {ID, frecuencia} de cada término
+     * @throws IOException Excepción en la escritura del segmento
+     */
+    private static void write(Path file, Map<Integer, Integer> lengths, Map<String, List<int[]>> postings)
+            throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(lengths.size());
+            for (Map.Entry<Integer, Integer> length : lengths.entrySet()) {
+                out.writeInt(length.getKey());
+                out.writeInt(length.getValue());
+            }
+            List<String> terms = new ArrayList<>(postings.keySet());
+            Collections.sort(terms);
+            long[] offsets = new long[terms.size()];
+            int[] maxTfs = new int[terms.size()];
+            for (int i = 0; i < terms.size(); i++) {
+                List<int[]> list = postings.get(terms.get(i));
+                list.sort(Comparator.comparingInt(posting -> posting[0]));
+                offsets[i] = out.size();
+                for (int[] posting : list) {
+                    out.writeInt(posting[0]);
+                    out.writeInt(posting[1]);
+                    maxTfs[i] = Math.max(maxTfs[i], posting[1]);
+                }
+            }
+            long dictionary = out.size();
+            out.writeInt(terms.size());
+            for (int i = 0; i < terms.size(); i++) {
+                out.writeUTF(terms.get(i));
+                out.writeInt(postings.get(terms.get(i)).size());
+                out.writeLong(offsets[i]);
+                out.writeInt(maxTfs[i]);
+            }
+            out.writeLong(dictionary);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Método para obtener el número de un fichero de segmento
+     *
+     * @param file Fichero del segmento
+     * @return Número del segmento
+     */
+    private static int segmentNumber(Path file) {
+        String name = file.getFileName().toString();
+        return Integer.parseInt(name.substring(4, name.length() - 4));
+    }
+
+    /**
+     * Clase interna de recorrido en orden de ID de las listas de un término
+     * en los segmentos y en las altas en memoria, unidas por ID y sin
+     * los documentos dados de baja, con su peso inverso de documento
+     * y la cota de su puntuación
+     */
+    private static final class TermCursor {
+        /**
+         * Listas del término, de la más antigua a la más reciente
+         */
+        private final List<PostingCursor> lists;
+        /**
+         * IDs de los documentos dados de baja
+         */
+        private final Set<Integer> deleted;
+        /**
+         * Peso inverso de documento del término
+         */
+        private final double idf;
+        /**
+         * Longitud media de los documentos
+         */
+        private final double avgLength;
+        /**
+         * Cota superior de la puntuación del término en cualquier documento
+         */
+        private final double bound;
+        /**
+         * ID del documento actual, o Integer.MAX_VALUE al acabar las listas
+         */
+        private int doc;
+        /**
+         * Frecuencia ponderada del término en el documento actual
+         */
+        private int tf;
+
+        /**
+         * Constructor del recorrido, que se sitúa en el primer documento
+         *
+         * @param lists     Listas del término, de la más antigua a la más reciente
+         * @param deleted   IDs de los documentos dados de baja
+         * @param df        Número de documentos de las listas, contando
+         *                  los dados de baja que aún no se han purgado
+         * @param maxTf     Mayor frecuencia ponderada del término en las listas
+         * @param nDocs     Número de documentos del índice
+         * @param avgLength Longitud media de los documentos
+         * @throws IOException Excepción en la lectura del índice
+         */
+        private TermCursor(List<PostingCursor> lists, Set<Integer> deleted, int df, int maxTf,
+                           int nDocs, double avgLength) throws IOException {
+            this.lists = lists;
+            this.deleted = deleted;
+            int n = Math.min(df, nDocs);
+            this.idf = Math.log(1 + (nDocs - n + 0.5) / (n + 0.5));
+            this.avgLength = avgLength;
+// The smallest possible norm is that of an empty document
+            this.bound = idf * maxTf * (K1 + 1) / (maxTf + K1 * (1 - B));
+            settle();
+        }
+
+        /**
+         * Método getter del documento actual
+         *
+         * @return ID del documento actual, o Integer.MAX_VALUE al acabar las listas
+         */
+        private int doc() {
+            return doc;
+        }
+
+        /**
+         * Método para pasar al siguiente documento
+         *
+         * @throws IOException Excepción en la lectura del índice
+         */
+        private void next() throws IOException {
+            for (PostingCursor list : lists) {
+                if (list.doc() == doc) {
+                    list.next();
+                }
+            }
+            settle();
+        }
+
+        /**
+         * Método para avanzar hasta el primer documento no anterior a uno dado
+         *
+         * @param ID Documento buscado
+         * @return Verdadero si el término aparece en ese documento
+         * @throws IOException Excepción en la lectura del índice
+         */
+        private boolean advance(int ID) throws IOException {
+            if (doc < ID) {
+                for (PostingCursor list : lists) {
+                    list.advance(ID);
+                }
+                settle();
+            }
+            return doc == ID;
+        }
+
+        /**
+         * Método para situar el recorrido en el menor documento de las listas
+         * que no esté dado de baja; si aparece en varias listas, por haberse
+         * indexado de nuevo, vale su frecuencia en la más reciente
+         *
+         * @throws IOException Excepción en la lectura del índice
+         */
+        private void settle() throws IOException {
+            while (true) {
+                doc = Integer.MAX_VALUE;
+                for (PostingCursor list : lists) {
+                    if (list.doc() < doc) {
+                        doc = list.doc();
+                        tf = list.tf();
+                    } else if (list.doc() == doc && doc != Integer.MAX_VALUE) {
+                        tf = list.tf();
+                    }
+                }
+                if (doc == Integer.MAX_VALUE || !deleted.contains(doc)) {
+                    return;
+                }
+                for (PostingCursor list : lists) {
+                    if (list.doc() == doc) {
+                        list.next();
+                    }
+                }
+            }
+        }
+
+        /**
+         * Método para puntuar el documento actual según BM25
+         *
+         * @param length Longitud ponderada del documento
+         * @return Puntuación del término en el documento
+         */
+        private double score(int length) {
+            double norm = K1 * (1 - B + B * length / avgLength);
+            return idf * tf * (K1 + 1) / (tf + norm);
+        }
+    }
+
+    /**
+     * Clase interna de lectura en orden de ID de la lista de un término
+     * en un segmento, un bloque cada vez, o en las altas en memoria
+     */
+    private static final class PostingCursor {
+        /**
+         * Acceso al fichero del segmento, o nulo para las altas en memoria
+         */
+        private final RandomAccessFile raf;
+        /**
+         * Lista de pares {ID, frecuencia} de las altas en memoria, o nulo para un segmento
+         */
+        private final List<int[]> memory;
+        /**
+         * Posición de la lista en el fichero del segmento
+         */
+        private final long offset;
+        /**
+         * Número de pares de la lista
+         */
+        private final int count;
+        /**
+         * IDs del bloque actual
+         */
+        private final int[] IDs = new int[BLOCK];
+        /**
+         * Frecuencias del bloque actual
+         */
+        private final int[] tfs = new int[BLOCK];
+        /**
+         * Posición en la lista del primer par del bloque actual
+         */
+        private int start;
+        /**
+         * Número de pares del bloque actual
+         */
+        private int size;
+        /**
+         * Posición actual dentro del bloque
+         */
+        private int position;
+
+        /**
+         * Constructor de la lectura, que carga el primer bloque
+         *
+         * @param raf    Acceso al fichero del segmento, o nulo para las altas en memoria
+         * @param memory Lista de las altas en memoria, o nulo para un segmento
+         * @param offset Posición de la lista en el fichero del segmento
+         * @param count  Número de pares de la lista
+         * @throws IOException Excepción en la lectura del segmento
+         */
+        private PostingCursor(RandomAccessFile raf, List<int[]> memory, long offset, int count) throws IOException {
+            this.raf = raf;
+            this.memory = memory;
+            this.offset = offset;
+            this.count = count;
+            load(0);
+        }
+
+        /**
+         * Método getter del documento actual
+         *
+         * @return ID del documento actual, o Integer.MAX_VALUE al acabar la lista
+         */
+        private int doc() {
+            return position < size ? IDs[position] : Integer.MAX_VALUE;
+        }
+
+        /**
+         * Método getter de la frecuencia del término en el documento actual
+         *
+         * @return Frecuencia ponderada del término
+         */
+        private int tf() {
+            return tfs[position];
+        }
+
+        /**
+         * Método para pasar al siguiente documento, cargando el siguiente bloque si hace falta
+         *
+         * @throws IOException Excepción en la lectura del segmento
+         */
+        private void next() throws IOException {
+            if (++position == size && start + size < count) {
+                load(start / BLOCK + 1);
+            }
+        }
+
+        /**
+         * Método para avanzar hasta el primer documento no anterior a uno dado;
+         * los bloques intermedios se saltan leyendo solo su primera ID
+         *
+         * @param ID Documento buscado
+         * @throws IOException Excepción en la lectura del segmento
+         */
+        private void advance(int ID) throws IOException {
+            if (doc() >= ID) {
+                return;
+            }
+            if (IDs[size - 1] < ID) {
+                int low = start / BLOCK + 1;
+                int high = (count - 1) / BLOCK;
+                if (low > high) {
+                    position = size;
+                    return;
+                }
+                int block = low;
+                while (low <= high) {
+                    int middle = (low + high) >>> 1;
+                    if (firstID(middle) <= ID) {
+                        block = middle;
+                        low = middle + 1;
+                    } else {
+                        high = middle - 1;
+                    }
+                }
+                load(block);
+            }
+            int found = Arrays.binarySearch(IDs, position, size, ID);
+            position = found >= 0 ? found : -found - 1;
+            if (position == size && start + size < count) {
+                load(start / BLOCK + 1);
+            }
+        }
+
+        /**
+         * Método para cargar un bloque de la lista
+         *
+         * @param block Número del bloque, desde 0
+         * @throws IOException Excepción en la lectura del segmento
+         */
+        private void load(int block) throws IOException {
+            start = block * BLOCK;
+            size = Math.min(BLOCK, count - start);
+            position = 0;
+            if (raf == null) {
+                for (int i = 0; i < size; i++) {
+                    IDs[i] = memory.get(start + i)[0];
+                    tfs[i] = memory.get(start + i)[1];
+                }
+            } else {
+                byte[] bytes = new byte[size * 8];
+                raf.seek(offset + start * 8L);
+                raf.readFully(bytes);
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+                for (int i = 0; i < size; i++) {
+                    IDs[i] = in.readInt();
+                    tfs[i] = in.readInt();
+                }
+            }
+        }
+
+        /**
+         * Método para leer la primera ID de un bloque sin cargarlo
+         *
+         * @param block Número del bloque, desde 0
+         * @return Primera ID del bloque
+         * @throws IOException Excepción en la lectura del segmento
+         */
+        private int firstID(int block) throws IOException {
+            if (raf == null) {
+                return memory.get(block * BLOCK)[0];
+            }
+            raf.seek(offset + block * BLOCK * 8L);
+            return raf.readInt();
+        }
+    }
+
+    /**
+     * Clase interna de segmento abierto del índice
+     */
+    private static final class Segment implements Closeable {
+        /**
+         * Fichero del segmento
+         */
+        private final Path file;
+        /**
+         * Acceso aleatorio al fichero para leer las listas
+         */
+        private final RandomAccessFile raf;
+        /**
+         * Longitud de cada documento del segmento, ordenada por su ID
+         */
+        private final NavigableMap<Integer, Integer> lengths = new TreeMap<>();
+        /**
+         * Número de documentos, posición y mayor frecuencia de la lista de cada término
+         */
+        private final Map<String, long[]> dictionary = new HashMap<>();
+
+        /**
+         * Constructor del segmento, que lee su tabla de documentos
+         * y su diccionario de términos
+         *
+         * @param file Fichero del segmento
+         * @throws IOException Excepción en la lectura del segmento
+         */
+        private Segment(Path file) throws IOException {
+            this.file = file;
+            raf = new RandomAccessFile(file.toFile(), "r");
+            if (raf.readInt() != MAGIC) {
+                raf.close();
+                throw new IOException(file.toString());
+            }
+            int nDocs = raf.readInt();
+            byte[] table = new byte[nDocs * 8];
+            raf.readFully(table);
+            DataInputStream docs = new DataInputStream(new ByteArrayInputStream(table));
+            for (int i = 0; i < nDocs; i++) {
+                lengths.put(docs.readInt(), docs.readInt());
+            }
+            raf.seek(raf.length() - 8);
+            long offset = raf.readLong();
+            byte[] terms = new byte[(int) (raf.length() - 8 - offset)];
+            raf.seek(offset);
+            raf.readFully(terms);
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(terms));
+            for (int i = in.readInt(); i > 0; i--) {
+                String term = in.readUTF();
+                dictionary.put(term, new long[]{in.readInt(), in.readLong(), in.readInt()});
+            }
+        }
+
+        /**
+         * Método para leer del disco la lista de un término
+         *
+         * @param term     Término buscado
+         * @param postings Lista donde añadir los pares {ID, frecuencia}
+         * @throws IOException Excepción en la lectura del segmento
+         */
+        private void postings(String term, List<int[]> postings) throws IOException {
+            long[] entry = dictionary.get(term);
+            if (entry == null) {
+                return;
+            }
+            byte[] block = new byte[(int) entry[0] * 8];
+            raf.seek(entry[1]);
+            raf.readFully(block);
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(block));
+            for (long i = 0; i < entry[0]; i++) {
+                postings.add(new int[]{in.readInt(), in.readInt()});
+            }
+        }
+
+        /**
+         * Método para cerrar el fichero del segmento
+         *
+         * @throws IOException Excepción al cerrar el fichero
+         */
+        @Override
+        public void close() throws IOException {
+            raf.close();
+        }
+    }
+}
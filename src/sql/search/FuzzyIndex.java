@@ -0,0 +1,331 @@
+package sql.search;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Clase de índice de borrado simétrico para la búsqueda tolerante
+ * a erratas de palabras en las columnas de una tabla
+ * <p>
+ * Cada palabra indexada se guarda también bajo todas las variantes
+ * que resultan de borrarle hasta la distancia máxima de caracteres;
+ * al buscar, se generan las mismas variantes de la palabra buscada
+ * y solo las palabras que comparten alguna se comparan con ella,
+ * por lo que el coste no crece con el número de entradas de la tabla.
+ * La distancia de edición admitida depende de la longitud de la palabra:
+ * ninguna hasta 3 caracteres, 1 hasta 5 y la máxima configurada a partir de ahí.
+ * Si se buscan varias palabras, cada entrada devuelta contiene todas ellas
+ *
+ * @author JuanGS
+ * @version 1.0
+ * @since 10-2026
+ */
+public final class FuzzyIndex {
+    /**
+     * Número de columnas de texto indexadas
+     */
+    private final int nFields;
+    /**
+     * Distancia de edición máxima admitida
+     */
+    private final int maxDistance;
+    /**
+     * Palabras de las columnas de cada entrada, según su ID
+     */
+    private final Map<Integer, String[][]> words = new HashMap<>();
+    /**
+     * Listas ordenadas de IDs de cada palabra, por columna
+     */
+    private final List<Map<String, Postings>> postings = new ArrayList<>();
+    /**
+     * Palabras de cada variante por borrado, por columna
+     */
+    private final List<Map<String, Set<String>>> deletes = new ArrayList<>();
+    /**
+     * Cerrojo de lectura y escritura del índice
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Constructor de la clase
+     *
+     * @param nFields     Número de columnas de texto indexadas
+     * @param maxDistance Distancia de edición máxima admitida
+     */
+    public FuzzyIndex(int nFields, int maxDistance) {
+        this.nFields = nFields;
+        this.maxDistance = maxDistance;
+        for (int i = 0; i < nFields; i++) {
+            postings.add(new HashMap<>());
+            deletes.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * Método para cargar el índice completo, descartando el anterior
+     *
+     * @param entries Texto de las columnas de cada entrada de la tabla, según su ID
+     */
+    public void load(Map<Integer, String[]> entries) {
+        lock.writeLock().lock();
+        try {
+            words.clear();
+            postings.forEach(Map::clear);
+            deletes.forEach(Map::clear);
+            new TreeMap<>(entries).forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Método para añadir o sustituir una entrada en el índice
+     *
+     * @param ID     Identificación numérica de la entrada
+     * @param fields Texto de las columnas de la entrada
+     */
+    public void put(int ID, String... fields) {
+        lock.writeLock().lock();
+        try {
+            remove(ID, words.get(ID));
+            add(ID, fields);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Método para eliminar una entrada del índice
+     *
+     * @param ID Identificación numérica de la entrada
+     */
+    public void remove(int ID) {
+        lock.writeLock().lock();
+        try {
+            remove(ID, words.get(ID));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Método de búsqueda de las entradas cuyas palabras se parecen
+     * a las de un texto dentro de la distancia de edición admitida
+     *
+     * @param field Posición de la columna donde buscar, desde 0
+     * @param seed  Texto que buscar
+     * @return IDs de las entradas encontradas, en orden ascendente
+     */
+    public int[] search(int field, String seed) {
+        String[] terms = tokenize(seed);
+        if (terms.length == 0) {
+            return new int[0];
+        }
+        lock.readLock().lock();
+        try {
+            int[] found = null;
+            for (String term : terms) {
+                int distance = distanceFor(term);
+                Set<String> candidates = new HashSet<>();
+                for (String variant : variants(term, distance)) {
+                    candidates.addAll(deletes.get(field).getOrDefault(variant, Collections.emptySet()));
+                }
+                Set<Integer> matches = new TreeSet<>();
+                for (String candidate : candidates) {
+                    if (Math.abs(candidate.length() - term.length()) <= distance
+                        && distance(candidate, term, distance) <= distance) {
+                        for (int ID : postings.get(field).get(candidate).toArray()) {
+                            matches.add(ID);
+                        }
+                    }
+                }
+                int[] ids = matches.stream().mapToInt(Integer::intValue).toArray();
+                found = found == null ? ids : intersect(found, ids);
+                if (found.length == 0) {
+                    break;
+                }
+            }
+            return found;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Método interno para indexar una entrada
+     *
+     * @param ID     Identificación numérica de la entrada
+     * @param fields Texto de las columnas de la entrada
+     */
+    private void add(int ID, String[] fields) {
+        String[][] terms = new String[nFields][];
+        for (int i = 0; i < nFields; i++) {
+            terms[i] = tokenize(fields[i]);
+            for (String term : terms[i]) {
+                Postings list = postings.get(i).get(term);
+                if (list == null) {
+                    list = new Postings();
+                    postings.get(i).put(term, list);
+                    for (String variant : variants(term, indexDistance(term))) {
+                        deletes.get(i).computeIfAbsent(variant, key -> new HashSet<>(2)).add(term);
+                    }
+                }
+                list.add(ID);
+            }
+        }
+        words.put(ID, terms);
+    }
+
+    /**
+     * Método interno para retirar una entrada del índice, junto con
+     * las variantes de las palabras que dejan de aparecer en la columna
+     *
+     * @param ID    Identificación numérica de la entrada
+     * @param terms Palabras indexadas de la entrada; sin efecto si es nulo
+     */
+    private void remove(int ID, String[][] terms) {
+        if (terms == null) {
+            return;
+        }
+        for (int i = 0; i < nFields; i++) {
+            for (String term : terms[i]) {
+                Postings list = postings.get(i).get(term);
+                if (list != null && list.remove(ID) && list.size == 0) {
+                    postings.get(i).remove(term);
+                    for (String variant : variants(term, indexDistance(term))) {
+                        Set<String> variantTerms = deletes.get(i).get(variant);
+                        if (variantTerms != null && variantTerms.remove(term) && variantTerms.isEmpty()) {
+                            deletes.get(i).remove(variant);
+                        }
+                    }
+                }
+            }
+        }
+        words.remove(ID);
+    }
+
+    /**
+     * Método para calcular la distancia de edición admitida
+     * según la longitud de la palabra
+     *
+     * @param term Palabra
+     * @return Distancia de edición admitida
+     */
+    private int distanceFor(String term) {
+        return term.length() <= 3 ? 0 : term.length() <= 5 ? Math.min(1, maxDistance) : maxDistance;
+    }
+
+    /**
+     * Método para calcular el número de borrados con el que se indexa
+     * una palabra, suficiente para cualquier búsqueda que pueda alcanzarla
+     *
+     * @param term Palabra
+     * @return Número máximo de caracteres borrados
+     */
+    private int indexDistance(String term) {
+        return term.length() <= 3 ? 0 : maxDistance;
+    }
+
+    /**
+     * Método para separar un texto en palabras en minúsculas distintas
+     *
+     * @param text Texto a separar
+     * @return Palabras del texto
+     */
+    private static String[] tokenize(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(term -> !term.isEmpty()).distinct().toArray(String[]::new);
+    }
+
+    /**
+     * Método para generar las variantes de una palabra borrando
+     * hasta un número dado de caracteres, incluida la propia palabra
+     *
+     * @param term     Palabra
+     * @param distance Número máximo de caracteres borrados
+     * @return Conjunto de variantes
+     */
+    private static Set<String> variants(String term, int distance) {
+        Set<String> variants = new HashSet<>();
+        variants.add(term);
+        Set<String> level = variants;
+        for (int d = 0; d < distance; d++) {
+            Set<String> next = new HashSet<>();
+            for (String word : level) {
+                for (int i = 0; i < word.length(); i++) {
+                    next.add(word.substring(0, i) + word.substring(i + 1));
+                }
+            }
+            variants.addAll(next);
+            level = next;
+        }
+        return variants;
+    }
+
+    /**
+     * Método de cálculo de la distancia de edición entre dos palabras,
+     * contando como una sola edición el cambio de orden de dos letras seguidas;
+     * el cálculo se corta en cuanto supera el límite dado
+     *
+     * @param a     Primera palabra
+     * @param b     Segunda palabra
+     * @param limit Distancia a partir de la cual no hace falta el valor exacto
+     * @return Distancia de edición, o un valor mayor que el límite
+     */
+    private static int distance(String a, String b, int limit) {
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    current[j] = Math.min(current[j], previous2[j - 2] + 1);
+                }
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > limit) {
+                return limit + 1;
+            }
+            int[] swap = previous2;
+            previous2 = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    /**
+     * Método para cruzar dos listas ordenadas de IDs
+     *
+     * @param a Primera lista
+     * @param b Segunda lista
+     * @return IDs presentes en ambas listas, en orden ascendente
+     */
+    private static int[] intersect(int[] a, int[] b) {
+        int[] common = new int[Math.min(a.length, b.length)];
+        int n = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                common[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(common, n);
+    }
+}
@@ -0,0 +1,77 @@
+package sql.search;
+
+import java.util.Arrays;
+
+/**
+ * Clase de lista ordenada de IDs de entradas, usada
+ * por los índices del paquete para cada término indexado
+ *
+ * @author JuanGS
+ * @version 1.0
+ * @since 10-2026
+ */
+final class Postings {
+    /**
+     * IDs de la lista, en orden ascendente
+     */
+    int[] ids = new int[4];
+    /**
+     * Número de IDs de la lista
+     */
+    int size;
+
+    /**
+     * Método para añadir una ID manteniendo el orden;
+     * las IDs nuevas suelen ser las mayores y se añaden al final
+     *
+     * @param ID Identificación numérica que añadir
+     */
+    void add(int ID) {
+        int pos = size > 0 && ids[size - 1] < ID ? -size - 1 : Arrays.binarySearch(ids, 0, size, ID);
+        if (pos >= 0) {
+            return;
+        }
+        pos = -pos - 1;
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+        ids[pos] = ID;
+        size++;
+    }
+
+    /**
+     * Método para retirar una ID de la lista
+     *
+     * @param ID Identificación numérica que retirar
+     * @return Verdadero si la ID estaba en la lista
+     */
+    boolean remove(int ID) {
+        int pos = Arrays.binarySearch(ids, 0, size, ID);
+        if (pos < 0) {
+            return false;
+        }
+        System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+        size--;
+        return true;
+    }
+
+    /**
+     * Método para comprobar si la lista contiene una ID
+     *
+     * @param ID Identificación numérica que buscar
+     * @return Verdadero si la ID está en la lista
+     */
+    boolean contains(int ID) {
+        return Arrays.binarySearch(ids, 0, size, ID) >= 0;
+    }
+
+    /**
+     * Método para copiar las IDs de la lista
+     *
+     * @return IDs de la lista, en orden ascendente
+     */
+    int[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+}
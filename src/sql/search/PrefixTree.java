@@ -0,0 +1,300 @@
+package sql.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Clase de árbol radix para el autocompletado por prefijo
+ * de los textos de una columna, sin distinguir mayúsculas
+ * <p>
+ * Cada nodo guarda un tramo de texto compartido por todos sus
+ * descendientes, de modo que el árbol ocupa un nodo por bifurcación
+ * y no por carácter. Los textos repetidos se cuentan una vez por
+ * entrada, para que una baja no retire un texto que siga en la tabla.
+ * Las propuestas se devuelven en orden alfabético y la búsqueda
+ * se detiene al reunir las pedidas
+ *
+ * @author JuanGS
+ * @version 1.0
+ * @since 10-2026
+ */
+public final class PrefixTree {
+    /**
+     * Nodo raíz del árbol, con tramo vacío
+     */
+    private final Node root = new Node("");
+    /**
+     * Cerrojo de lectura y escritura del árbol
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Método para cargar el árbol completo, descartando el anterior
+     *
+     * @param terms Textos de la columna, uno por entrada de la tabla
+     */
+    public void load(Collection<String> terms) {
+        lock.writeLock().lock();
+        try {
+            root.children.clear();
+            root.count = 0;
+            root.term = null;
+            terms.forEach(this::insert);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Método para añadir el texto de una entrada al árbol
+     *
+     * @param term Texto a añadir
+     */
+    public void add(String term) {
+        lock.writeLock().lock();
+        try {
+            insert(term);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Método para retirar el texto de una entrada del árbol
+     *
+     * @param term Texto a retirar
+     */
+    public void remove(String term) {
+        if (term == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            delete(root, term.toLowerCase(Locale.ROOT), 0);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Método de búsqueda de los textos que empiezan por un prefijo
+     *
+     * @param prefix Prefijo que buscar
+     * @param k      Número máximo de propuestas
+     * @return Textos encontrados, en orden alfabético
+     */
+    public List<String> complete(String prefix, int k) {
+        String key = prefix.toLowerCase(Locale.ROOT);
+        List<String> found = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int i = 0;
+            while (i < key.length()) {
+                Node child = node.child(key.charAt(i));
+                if (child == null) {
+                    return found;
+                }
+                int common = common(child.edge, key, i);
+                if (common < child.edge.length() && i + common < key.length()) {
+                    return found;
+                }
+                node = child;
+                i += common;
+            }
+            collect(node, k, found);
+            return found;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Método interno para añadir un texto, partiendo el tramo
+     * de un nodo cuando el texto se separa a mitad de él
+     *
+     * @param term Texto a añadir
+     */
+    private void insert(String term) {
+        if (term == null) {
+            return;
+        }
+        String key = term.toLowerCase(Locale.ROOT);
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            Node child = node.child(key.charAt(i));
+            if (child == null) {
+                child = new Node(key.substring(i));
+                node.put(child);
+                node = child;
+                break;
+            }
+            int common = common(child.edge, key, i);
+            if (common < child.edge.length()) {
+                Node middle = new Node(child.edge.substring(0, common));
+                node.put(middle);
+                child.edge = child.edge.substring(common);
+                middle.put(child);
+                child = middle;
+            }
+            node = child;
+            i += common;
+        }
+        if (node.count++ == 0) {
+            node.term = term;
+        }
+    }
+
+    /**
+     * Método interno recursivo para retirar un texto, podando los nodos
+     * que quedan vacíos y uniendo los que quedan con un solo hijo
+     *
+     * @param node Nodo actual
+     * @param key  Texto en minúsculas a retirar
+     * @param i    Posición del texto ya recorrida
+     */
+    private void delete(Node node, String key, int i) {
+        if (i == key.length()) {
+            if (node.count > 0 && --node.count == 0) {
+                node.term = null;
+            }
+            return;
+        }
+        Node child = node.child(key.charAt(i));
+        if (child == null || !key.startsWith(child.edge, i)) {
+            return;
+        }
+        delete(child, key, i + child.edge.length());
+        if (child.count == 0 && child.children.isEmpty()) {
+            node.children.remove(child);
+        } else if (child.count == 0 && child.children.size() == 1) {
+            Node grandChild = child.children.get(0);
+            grandChild.edge = child.edge + grandChild.edge;
+            node.put(grandChild);
+        }
+    }
+
+    /**
+     * Método interno para reunir en orden alfabético
+     * los textos bajo un nodo
+     *
+     * @param node  Nodo de partida
+     * @param k     Número máximo de textos
+     * @param found Lista donde añadir los textos
+     */
+    private static void collect(Node node, int k, List<String> found) {
+        if (found.size() >= k) {
+            return;
+        }
+        if (node.count > 0) {
+            found.add(node.term);
+        }
+        for (Node child : node.children) {
+            collect(child, k, found);
+            if (found.size() >= k) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Método para medir el tramo común entre el de un nodo
+     * y un texto a partir de una posición
+     *
+     * @param edge Tramo del nodo
+     * @param key  Texto a comparar
+     * @param from Posición del texto desde la que comparar
+     * @return Número de caracteres comunes
+     */
+    private static int common(String edge, String key, int from) {
+        int n = 0;
+        while (n < edge.length() && from + n < key.length() && edge.charAt(n) == key.charAt(from + n)) {
+            n++;
+        }
+        return n;
+    }
+
+    /**
+     * Clase interna de nodo del árbol
+     */
+    private static final class Node {
+        /**
+         * Hijos del nodo, ordenados por el primer carácter de su tramo
+         */
+        private final List<Node> children = new ArrayList<>(2);
+        /**
+         * Tramo de texto del nodo
+         */
+        private String edge;
+        /**
+         * Número de entradas cuyo texto acaba en este nodo
+         */
+        private int count;
+        /**
+         * Texto original, con sus mayúsculas, que acaba en este nodo
+         */
+        private String term;
+
+        /**
+         * Constructor del nodo
+         *
+         * @param edge Tramo de texto del nodo
+         */
+        private Node(String edge) {
+            this.edge = edge;
+        }
+
+        /**
+         * Método para buscar el hijo cuyo tramo empieza por un carácter
+         *
+         * @param c Carácter inicial del tramo
+         * @return Nodo hijo, o nulo si no existe
+         */
+        private Node child(char c) {
+            int pos = position(c);
+            return pos < children.size() && children.get(pos).edge.charAt(0) == c ? children.get(pos) : null;
+        }
+
+        /**
+         * Método para añadir un hijo o sustituir el que empieza
+         * por el mismo carácter
+         *
+         * @param child Nodo hijo
+         */
+        private void put(Node child) {
+            char c = child.edge.charAt(0);
+            int pos = position(c);
+            if (pos < children.size() && children.get(pos).edge.charAt(0) == c) {
+                children.set(pos, child);
+            } else {
+                children.add(pos, child);
+            }
+        }
+
+        /**
+         * Método de búsqueda binaria de la posición de un carácter
+         * entre los hijos del nodo
+         *
+         * @param c Carácter inicial del tramo
+         * @return Posición del hijo, o la que ocuparía
+         */
+        private int position(char c) {
+            int low = 0;
+            int high = children.size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (children.get(mid).edge.charAt(0) < c) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
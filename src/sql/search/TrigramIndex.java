@@ -0,0 +1,300 @@
+/**
+ * Paquete de índices en memoria para las búsquedas
+ * de texto sobre las tablas de la base de datos
+ */
+package sql.search;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Clase de índice invertido de trigramas para la búsqueda de fragmentos
+ * de texto en las columnas de una tabla, sin distinguir mayúsculas
+ * <p>
+ * Cada entrada se indexa por su ID con el texto de sus columnas;
+ * una búsqueda cruza las listas de IDs de los trigramas del fragmento
+ * y confirma el resultado sobre el texto guardado, de modo que devuelve
+ * lo mismo que {@code LOWER(columna) LIKE '%fragmento%'}. Los fragmentos
+ * de menos de tres caracteres se resuelven recorriendo el texto guardado
+ * <p>
+ * El índice se carga completo desde la base de datos y se mantiene
+ * con las altas y bajas del programa; pasada su antigüedad máxima
+ * se considera caducado para recoger los cambios hechos desde otros puestos
+ *
+ * @author JuanGS
+ * @version 1.0
+ * @since 10-2026
+ */
+public final class TrigramIndex {
+    /**
+     * Número de columnas de texto indexadas
+     */
+    private final int nFields;
+    /**
+     * Antigüedad máxima, en milisegundos, del índice cargado
+     */
+    private final long maxAge;
+    /**
+     * Texto en minúsculas de las columnas de cada entrada, ordenado por su ID
+     * para conocer la ID máxima sin recorrerlo
+     */
+    private final NavigableMap<Integer, String[]> texts = new TreeMap<>();
+    /**
+     * Listas ordenadas de IDs de cada trigrama, por columna
+     */
+    private final List<Map<Long, Postings>> postings = new ArrayList<>();
+    /**
+     * Cerrojo de lectura y escritura del índice
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    /**
+     * Instante de la última carga completa; 0 si no se ha cargado
+     */
+    private long loadedAt;
+
+    /**
+     * Constructor de la clase
+     *
+     * @param nFields Número de columnas de texto indexadas
+     * @param maxAge  Antigüedad máxima, en milisegundos, del índice cargado
+     */
+    public TrigramIndex(int nFields, long maxAge) {
+        this.nFields = nFields;
+        this.maxAge = maxAge;
+        for (int i = 0; i < nFields; i++) {
+            postings.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * Método para comprobar si el índice debe cargarse de nuevo
+     *
+     * @return Verdadero si no se ha cargado o ha superado su antigüedad máxima
+     */
+    public boolean isStale() {
+        lock.readLock().lock();
+        try {
+            return loadedAt == 0 || System.currentTimeMillis() - loadedAt > maxAge;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Método para comprobar si el índice refleja una tabla con el número
+     * de entradas e ID máxima dados; como las IDs no se reutilizan, cualquier
+     * alta o baja en la tabla que no esté en el índice cambia alguno de los dos
+     *
+     * @param size  Número de entradas de la tabla
+     * @param maxID ID máxima de la tabla, 0 si está vacía
+     * @return Verdadero si el índice tiene ese número de entradas e ID máxima
+     */
+    public boolean matches(int size, int maxID) {
+        lock.readLock().lock();
+        try {
+            return texts.size() == size && maxID() == maxID;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Método para comprobar si una entrada está en el índice
+     *
+     * @param ID Identificación numérica de la entrada
+     * @return Verdadero si la entrada está indexada
+     */
+    public boolean contains(int ID) {
+        lock.readLock().lock();
+        try {
+            return texts.containsKey(ID);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Método para obtener la mayor ID de las entradas indexadas
+     *
+     * @return ID máxima del índice, 0 si está vacío
+     */
+    public int maxID() {
+        lock.readLock().lock();
+        try {
+            return texts.isEmpty() ? 0 : texts.lastKey();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Método para cargar el índice completo, descartando el anterior
+     *
+     * @param entries Texto de las columnas de cada entrada de la tabla, según su ID
+     */
+    public void load(Map<Integer, String[]> entries) {
+        lock.writeLock().lock();
+        try {
+            texts.clear();
+            postings.forEach(Map::clear);
+            new TreeMap<>(entries).forEach(this::add);
+            loadedAt = System.currentTimeMillis();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Método para vaciar el índice, que pasa a necesitar una carga completa
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            texts.clear();
+            postings.forEach(Map::clear);
+            loadedAt = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Método para añadir o sustituir una entrada en el índice;
+     * sin efecto si el índice no está cargado
+     *
+     * @param ID     Identificación numérica de la entrada
+     * @param fields Texto de las columnas de la entrada
+     */
+    public void put(int ID, String... fields) {
+        lock.writeLock().lock();
+        try {
+            if (loadedAt != 0) {
+                remove(ID, texts.get(ID));
+                add(ID, fields);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Método para eliminar una entrada del índice
+     *
+     * @param ID Identificación numérica de la entrada
+     * @return Texto en minúsculas que tenía indexado la entrada,
+     * o nulo si no estaba en el índice
+     */
+    public String[] remove(int ID) {
+        lock.writeLock().lock();
+        try {
+            String[] lower = texts.get(ID);
+            remove(ID, lower);
+            return lower;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Método de búsqueda de las entradas que contienen un fragmento
+     * de texto en una columna, sin distinguir mayúsculas
+     *
+     * @param field Posición de la columna donde buscar, desde 0
+     * @param seed  Fragmento de texto que buscar
+     * @return IDs de las entradas encontradas, en orden ascendente
+     */
+    public int[] search(int field, String seed) {
+        String lower = seed.toLowerCase(Locale.ROOT);
+        lock.readLock().lock();
+        try {
+            if (lower.length() < 3) {
+                return texts.entrySet().stream()
+                        .filter(entry -> entry.getValue()[field].contains(lower))
+                        .mapToInt(Map.Entry::getKey).toArray();
+            }
+
+            List<Postings> lists = new ArrayList<>();
+            for (long trigram : trigrams(lower)) {
+                Postings list = postings.get(field).get(trigram);
+                if (list == null) {
+                    return new int[0];
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(list -> list.size));
+
+            Postings first = lists.get(0);
+            int[] found = new int[first.size];
+            int n = 0;
+            candidates:
+            for (int i = 0; i < first.size; i++) {
+                int ID = first.ids[i];
+                for (int j = 1; j < lists.size(); j++) {
+                    if (!lists.get(j).contains(ID)) {
+                        continue candidates;
+                    }
+                }
+                if (texts.get(ID)[field].contains(lower)) {
+                    found[n++] = ID;
+                }
+            }
+            return Arrays.copyOf(found, n);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Método interno para indexar una entrada
+     *
+     * @param ID     Identificación numérica de la entrada
+     * @param fields Texto de las columnas de la entrada
+     */
+    private void add(int ID, String[] fields) {
+        String[] lower = new String[nFields];
+        for (int i = 0; i < nFields; i++) {
+            lower[i] = fields[i] == null ? "" : fields[i].toLowerCase(Locale.ROOT);
+            for (long trigram : trigrams(lower[i])) {
+                postings.get(i).computeIfAbsent(trigram, key -> new Postings()).add(ID);
+            }
+        }
+        texts.put(ID, lower);
+    }
+
+    /**
+     * Método interno para retirar una entrada del índice
+     *
+     * @param ID    Identificación numérica de la entrada
+     * @param lower Texto indexado de la entrada; sin efecto si es nulo
+     */
+    private void remove(int ID, String[] lower) {
+        if (lower == null) {
+            return;
+        }
+        for (int i = 0; i < nFields; i++) {
+            for (long trigram : trigrams(lower[i])) {
+                Postings list = postings.get(i).get(trigram);
+                if (list != null && list.remove(ID) && list.size == 0) {
+                    postings.get(i).remove(trigram);
+                }
+            }
+        }
+        texts.remove(ID);
+    }
+
+    /**
+     * Método para obtener los trigramas distintos de un texto,
+     * cada uno codificado con sus tres caracteres en un entero largo
+     *
+     * @param text Texto en minúsculas
+     * @return Conjunto de trigramas del texto
+     */
+    private static Set<Long> trigrams(String text) {
+        Set<Long> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            trigrams.add((long) text.charAt(i) << 32 | (long) text.charAt(i + 1) << 16 | text.charAt(i + 2));
+        }
+        return trigrams;
+    }
+}
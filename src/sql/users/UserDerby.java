@@ -4,6 +4,11 @@
  */
 package sql.users;
 
+import sql.ConnectionPool;
+import sql.DatabaseBuilder;
+import sql.caches.NegativeCache;
+import sql.caches.TinyLfuCache;
+import sql.reservoirs.TableMapping;
 import tables.User;
 import utils.Utils;
 
@@ -12,6 +17,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
 import java.util.ResourceBundle;
+import java.util.stream.Stream;
 
 /**
  * Clase principal de métodos de conexión a la base de datos
@@ -33,8 +39,7 @@ public final class UserDerby implements UserDAO {
     /**
      * URL de la base de datos utilizada por este código
      */
-    private final String url = configProps.getProperty("database-url") + "/" +
-                               configProps.getProperty("database");
+    private final String url = DatabaseBuilder.databaseUrl(configProps);
     /**
      * Ruta completa de la tabla de datos manejada en esta clase
      */
@@ -48,6 +53,47 @@ public final class UserDerby implements UserDAO {
      * Campo 2 de la tabla de datos;
      */
     private final String field2 = configProps.getProperty("database-table-4-field-2");
+    /**
+     * Número de filas por bloque leído del servidor al recorrer la tabla
+     */
+    private final int fetchSize = Integer.parseInt(configProps.getProperty("database-fetch-size", "100"));
+    /**
+     * Caché de lectura de las entradas por su ID, invalidada
+     * por cada modificación hecha desde las clases DAO
+     */
+    private final TinyLfuCache<Integer, User> cache = new TinyLfuCache<>(Long.parseLong(configProps.getProperty("database-cache-size", "256")),
+            user -> 1, Long.parseLong(configProps.getProperty("database-cache-expiry", "60000")));
+    /**
+     * Caché de las búsquedas por texto sin resultados, de corta duración
+     * y vaciada por cada alta hecha desde las clases DAO
+     */
+    private final NegativeCache<String> notFound = new NegativeCache<>(
+            Integer.parseInt(configProps.getProperty("database-cache-negative-size", "256")),
+            Long.parseLong(configProps.getProperty("database-cache-negative-expiry", "10000")));
+    /**
+     * Correspondencia de la tabla de datos con los objetos Usuario; los listados
+     * se ordenan por ID o por nombre, acabando en la ID y con un índice
+     * con las mismas columnas
+     */
+    private final TableMapping<User> mapping = new TableMapping<>(configProps, "database-table-4",
+            new String[]{"database-table-4-field-1", "database-table-4-field-2"},
+            new int[][]{{0}, {1, 0}},
+            rs -> new User(rs.getInt(1),
+                    rs.getString(2)),
+            user -> new Object[]{user.getID(), user.getName()});
+    /**
+     * Consulta de los nombres de todos los usuarios
+     */
+    private final String namesSQL = String.format("SELECT %s FROM %s", field2, tableName);
+    /**
+     * Consulta de un usuario por su nombre, sin distinguir mayúsculas
+     */
+    private final String nameSQL = String.format("SELECT %s FROM %s WHERE LOWER(%s) = LOWER(?)", field1, tableName, field2);
+    /**
+     * Consulta de los usuarios cuyo nombre contiene un fragmento de texto
+     */
+    private final String likeSQL = String.format("SELECT %s, %s FROM %s WHERE LOWER(%s) LIKE LOWER(?) ORDER BY %s",
+            field1, field2, tableName, field2, field1);
 
     /**
      * Constructor privado de la clase
@@ -64,6 +110,24 @@ public final class UserDerby implements UserDAO {
         return instance;
     }
 
+    /**
+     * Método getter de la caché de usuarios por ID
+     *
+     * @return Caché de lectura de la tabla de datos Usuarios
+     */
+    public TinyLfuCache<Integer, User> getCache() {
+        return cache;
+    }
+
+    /**
+     * Método getter de la caché de búsquedas sin resultados
+     *
+     * @return Caché de textos buscados sin usuarios encontrados
+     */
+    public NegativeCache<String> getNotFound() {
+        return notFound;
+    }
+
     /**
      * Método para probar la conexión de un usuario y contraseña
      * suministrados, comprobando su validez de conexión
@@ -94,21 +158,8 @@ public final class UserDerby implements UserDAO {
      */
     @Override
     public int[] countDB(User currentUser, ResourceBundle rb) {
-        String query1 = String.format("SELECT COUNT(*) FROM %s", tableName);
-        String query2 = String.format("SELECT %s FROM %s WHERE %s = (SELECT max(%s) FROM %s)",
-                field1, tableName, field1, field1, tableName);
-
-        try (Connection con = DriverManager.getConnection(url, currentUser.getName(), currentUser.getPassword());
-             Statement stmt1 = con.createStatement();
-             Statement stmt2 = con.createStatement();
-             ResultSet rs1 = stmt1.executeQuery(query1);
-             ResultSet rs2 = stmt2.executeQuery(query2)) {
-            rs1.next();
-            if (rs2.next()) {
-                return new int[]{rs1.getInt(1), rs2.getInt(1)};
-            } else {
-                return new int[]{rs1.getInt(1), 0};
-            }
+        try (Connection con = ConnectionPool.getInstance().getConnection(currentUser)) {
+            return mapping.count(con);
         } catch (SQLException sqle) {
             System.err.printf("  %s:\n%s\n", rb.getString("dao-general-error"), sqle.getMessage());
             return null;
@@ -120,32 +171,23 @@ public final class UserDerby implements UserDAO {
      *
      * @param currentUser Objeto de usuario con sus datos
      *                    de acceso a la base de datos
+     * @param newUser     Objeto de usuario que registrar en la base de datos
      * @param rb          Recurso para la localización
      *                    del texto del programa
+     * @return ID generada por la base de datos para el nuevo usuario
      */
     @Override
-    public void addDb(User currentUser, User newUser, ResourceBundle rb) {
+    public int addDb(User currentUser, User newUser, ResourceBundle rb) {
         String setProperty = "CALL SYSCS_UTIL.SYSCS_SET_DATABASE_PROPERTY(";
         String fullAccessUsers = "'derby.database.fullAccessUsers'";
-        String query1 = String.format("SELECT COUNT(*) FROM %s", tableName);
-        String query2 = String.format("SELECT %s FROM %s", field2, tableName);
-        String query3 = String.format("SELECT * FROM %s WHERE LOWER(%s) = LOWER(?)", tableName, field2);
-        String query4 = String.format("INSERT INTO %s VALUES (?,?)", tableName);
 
-        try (Connection con = DriverManager.getConnection(url, currentUser.getName(), currentUser.getPassword());
-             Statement s1 = con.createStatement();
+        try (Connection con = ConnectionPool.getInstance().getConnection(currentUser);
              Statement s2 = con.createStatement();
-             Statement s3 = con.createStatement();
-             PreparedStatement pStmt1 = con.prepareStatement(query3);
-             PreparedStatement pStmt2 = con.prepareStatement(query4);
-             ResultSet rs3 = s3.executeQuery(query2)) {
-            ResultSet rs1 = s1.executeQuery(query1);
-            rs1.next();
-            if (rs1.getInt(1) >= Integer.parseInt(configProps.getProperty("database-user-maxusers"))) {
-                rs1.close();
+             PreparedStatement pStmt3 = con.prepareStatement(namesSQL);
+             PreparedStatement pStmt1 = con.prepareStatement(nameSQL);
+             ResultSet rs3 = pStmt3.executeQuery()) {
+            if (mapping.count(con)[0] >= Integer.parseInt(configProps.getProperty("database-user-maxusers"))) {
                 throw new SQLException(rb.getString("dao-user-error-limit"));
-            } else {
-                rs1.close();
             }
 
             if (newUser.getName().equals(configProps.getProperty("database-name")) || newUser.getName().equals("user")) {
@@ -171,11 +213,17 @@ public final class UserDerby implements UserDAO {
                 s2.executeUpdate("GRANT ALL PRIVILEGES ON TABLE " + configProps.getProperty("database-name") +
                                  "." + configProps.getProperty("database-table-" + i) + " TO " + newUser.getName());
             }
-            pStmt2.setInt(1, newUser.getID());
-            pStmt2.setString(2, newUser.getName());
-            if (pStmt2.executeUpdate() == 1) {
+            for (int i = 5; i < 7; i++) {
+                s2.executeUpdate("GRANT SELECT ON TABLE " + configProps.getProperty("database-name") +
+                                 "." + configProps.getProperty("database-table-" + i) + " TO " + newUser.getName());
+            }
+            int idUser = mapping.insert(con, newUser);
+            if (idUser != -1) {
+                cache.invalidate(idUser);
+                notFound.clear();
                 System.out.printf("  %s.\n", rb.getString("dao-user-add"));
             } else throw new SQLException(rb.getString("dao-user-error-add"));
+            return idUser;
         } catch (SQLException sqle) {
             throw new RuntimeException(sqle.getMessage());
         }
@@ -192,21 +240,12 @@ public final class UserDerby implements UserDAO {
      */
     @Override
     public List<User> searchDB(User currentUser, ResourceBundle rb) {
-        String query = String.format("SELECT * FROM %s", tableName);
-        List<User> listUser = new ArrayList<>();
-
-        try (Connection con = DriverManager.getConnection(url, currentUser.getName(), currentUser.getPassword());
-             Statement stmt = con.createStatement();
-             ResultSet rs = stmt.executeQuery(query)) {
-            while (rs.next()) {
-                listUser.add(new User(rs.getInt(1),
-                        rs.getString(2)));
-            }
+        try (Connection con = ConnectionPool.getInstance().getConnection(currentUser)) {
+            return mapping.select(con);
         } catch (SQLException sqle) {
             System.err.printf("  %s:\n%s\n", rb.getString("dao-general-error"), sqle.getMessage());
+            return new ArrayList<>();
         }
-
-        return listUser;
     }
 
     /**
@@ -223,6 +262,51 @@ public final class UserDerby implements UserDAO {
         return null;
     }
 
+    /**
+     * Método para recorrer todos los usuarios de la base de datos
+     * en orden de ID, sin reunirlos en una lista
+     *
+     * @param currentUser Objeto de usuario con sus datos
+     *                    de acceso a la base de datos
+     * @param details     Sin efecto al no poseer estos objetos mayores detalles
+     * @param rb          Recurso para la localización
+     *                    del texto del programa
+     * @return Flujo de usuarios, que debe cerrarse tras su uso
+     */
+    @Override
+    public Stream<User> streamDB(User currentUser, boolean details, ResourceBundle rb) {
+        try {
+            return mapping.stream(ConnectionPool.getInstance().getConnection(currentUser), fetchSize);
+        } catch (SQLException sqle) {
+            throw new RuntimeException(String.format("  %s:\n%s\n", rb.getString("dao-general-error"), sqle.getMessage()));
+        }
+    }
+
+    /**
+     * Método para buscar una página de usuarios de la base de datos,
+     * ordenados por ID o por nombre
+     *
+     * @param currentUser Objeto de usuario con sus datos
+     *                    de acceso a la base de datos
+     * @param order       Número del orden del listado: 1 ID, 2 nombre
+     * @param last        Último usuario de la página anterior,
+     *                    o nulo para la primera página
+     * @param size        Número máximo de entradas de la página
+     * @param details     Sin efecto al no poseer estos objetos mayores detalles
+     * @param rb          Recurso para la localización
+     *                    del texto del programa
+     * @return Lista de usuarios de la página
+     */
+    @Override
+    public List<User> searchPageDB(User currentUser, int order, User last, int size, boolean details, ResourceBundle rb) {
+        try (Connection con = ConnectionPool.getInstance().getConnection(currentUser)) {
+            return mapping.page(con, order, last, size);
+        } catch (SQLException sqle) {
+            System.err.printf("  %s:\n%s\n", rb.getString("dao-general-error"), sqle.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
     /**
      * Método para buscar usuarios de la base de datos
      * según su nombre o un fragmento de éste
@@ -232,13 +316,18 @@ public final class UserDerby implements UserDAO {
      * @param seed        Fragmento de texto a buscar entre los nombres
      * @param rb          Recurso para la localización
      *                    del texto del programa
-     * @return Lista de usuarios recuperados de la base de datos
+     * @return Lista de usuarios recuperados de la base de datos,
+     * vacía si ninguno contiene el fragmento
      */
     public List<User> searchUser(User currentUser, String seed, ResourceBundle rb) {
-        String query = String.format("SELECT * FROM %s WHERE LOWER(%s) LIKE LOWER(?)", tableName, field2);
+        String key = seed.toLowerCase();
+        if (notFound.contains(key)) {
+            return List.of();
+        }
+        long version = notFound.version();
 
-        try (Connection con = DriverManager.getConnection(url, currentUser.getName(), currentUser.getPassword());
-             PreparedStatement pStmt = con.prepareStatement(query)) {
+        try (Connection con = ConnectionPool.getInstance().getConnection(currentUser);
+             PreparedStatement pStmt = con.prepareStatement(likeSQL)) {
             pStmt.setString(1, "%" + seed + "%");
             List<User> listUsers = new ArrayList<>();
             ResultSet rs = pStmt.executeQuery();
@@ -248,7 +337,7 @@ public final class UserDerby implements UserDAO {
             }
             rs.close();
             if (listUsers.isEmpty()) {
-                throw new SQLException(rb.getString("dao-user-error-search-1"));
+                notFound.add(key, version);
             }
             return listUsers;
         } catch (SQLException sqle) {
@@ -268,21 +357,17 @@ public final class UserDerby implements UserDAO {
      * @return Usuario recuperado de la base de datos
      */
     public User searchUser(User currentUser, int ID, ResourceBundle rb) {
-        String query = String.format("SELECT * FROM %s WHERE %s = ?", tableName, field1);
-
-        try (Connection con = DriverManager.getConnection(url, currentUser.getName(), currentUser.getPassword());
-             PreparedStatement pStmt = con.prepareStatement(query)) {
-            pStmt.setInt(1, ID);
-            ResultSet rs = pStmt.executeQuery();
-            if (rs.next()) {
-                User newUser = new User(ID,
-                        rs.getString(2));
-                rs.close();
-                return newUser;
-            } else {
-                rs.close();
+        try {
+            User user = cache.get(ID, id -> {
+                try (Connection con = ConnectionPool.getInstance().getConnection(currentUser)) {
+                    List<User> users = mapping.select(con, id);
+                    return users.isEmpty() ? null : users.get(0);
+                }
+            });
+            if (user == null) {
                 throw new SQLException(rb.getString("dao-user-error-search-2"));
             }
+            return user;
         } catch (SQLException sqle) {
             throw new RuntimeException(String.format("  %s:\n%s\n", rb.getString("dao-general-error"), sqle.getMessage()));
         }
@@ -297,54 +382,41 @@ public final class UserDerby implements UserDAO {
      *                    del texto del programa
      */
     @Override
-    public int deleteDB(User currentUser, int ID, ResourceBundle rb) {
+    public void deleteDB(User currentUser, int ID, ResourceBundle rb) {
         String setProperty = "CALL SYSCS_UTIL.SYSCS_SET_DATABASE_PROPERTY(";
         String fullAccessUsers = "'derby.database.fullAccessUsers'";
-        String query1 = String.format("SELECT %s FROM %s WHERE %s = ?", field2, tableName, field1);
-        String query2 = String.format("SELECT %s FROM %s", field2, tableName);
-        String query3 = String.format("DELETE FROM %s WHERE %s = ?", tableName, field1);
-        String query4 = String.format("SELECT %s FROM %s WHERE %s = (SELECT max(%s) FROM %s)",
-                field1, tableName, field1, field1, tableName);
 
-        try (Connection con = DriverManager.getConnection(url, currentUser.getName(), currentUser.getPassword());
+        try (Connection con = ConnectionPool.getInstance().getConnection(currentUser);
              Statement s1 = con.createStatement();
              Statement s2 = con.createStatement();
-             PreparedStatement pStmt1 = con.prepareStatement(query1);
-             PreparedStatement pStmt3 = con.prepareStatement(query3);
-             Statement stmt4 = con.createStatement()) {
-            pStmt1.setInt(1, ID);
-            ResultSet rs1 = pStmt1.executeQuery();
-            if (rs1.next()) {
-                s1.executeUpdate(setProperty + "'derby.user." + rs1.getString(1) + "', null)");
+             PreparedStatement pStmt2 = con.prepareStatement(namesSQL)) {
+            List<User> users = mapping.select(con, ID);
+            if (!users.isEmpty()) {
+                String name = users.get(0).getName();
+                s1.executeUpdate(setProperty + "'derby.user." + name + "', null)");
                 for (int i = 1; i < 4; i++) {
                     s2.executeUpdate("REVOKE ALL PRIVILEGES ON TABLE " + configProps.getProperty("database-name") +
-                                     "." + configProps.getProperty("database-table-" + i) + " FROM " + rs1.getString(1));
+                                     "." + configProps.getProperty("database-table-" + i) + " FROM " + name);
                 }
-                rs1.close();
+                for (int i = 5; i < 7; i++) {
+                    s2.executeUpdate("REVOKE SELECT ON TABLE " + configProps.getProperty("database-name") +
+                                     "." + configProps.getProperty("database-table-" + i) + " FROM " + name);
+                }
+                ConnectionPool.getInstance().evict(name);
             } else {
-                rs1.close();
                 throw new SQLException(rb.getString("dao-user-error-search-2"));
             }
 
-            pStmt3.setInt(1, ID);
-            if (pStmt3.executeUpdate() == 1) {
+            if (mapping.delete(con, ID)) {
+                cache.invalidate(ID);
                 StringBuilder listUsers = new StringBuilder(configProps.getProperty("database-name") + ",");
-                ResultSet rs2 = s2.executeQuery(query2);
+                ResultSet rs2 = pStmt2.executeQuery();
                 while (rs2.next()) {
                     listUsers.append(rs2.getString(1)).append(",");
                 }
                 rs2.close();
                 s1.executeUpdate(setProperty + fullAccessUsers + ", '" + listUsers.deleteCharAt(listUsers.length() - 1) + "')");
                 System.out.printf("  %s.\n", rb.getString("dao-user-delete"));
-                ResultSet rs4 = stmt4.executeQuery(query4);
-                if (rs4.next()) {
-                    int maxIDUser = rs4.getInt(1);
-                    rs4.close();
-                    return maxIDUser;
-                } else {
-                    rs4.close();
-                    return 0;
-                }
             } else {
                 throw new SQLException();
             }
@@ -13,6 +13,7 @@ import tables.User;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -178,25 +179,83 @@ public final class Utils {
         return s;
     }
 
+    /**
+     * Método general de autocompletado de un texto de búsqueda:
+     * si acaba en '*', se muestran los textos guardados que empiezan
+     * por él para elegir uno por su número
+     *
+     * @param scan      Entrada de datos por teclado
+     * @param text      Texto introducido
+     * @param completer Búsqueda de los textos que empiezan por un prefijo
+     * @return Texto elegido, o el introducido sin '*' si no se elige ninguno
+     */
+    public static String completeString(Scanner scan, String text, Function<String, List<String>> completer) {
+        if (!text.endsWith("*")) {
+            return text;
+        }
+        String prefix = text.substring(0, text.length() - 1);
+        List<String> completions = completer.apply(prefix);
+        if (completions.isEmpty()) {
+            System.out.printf("  %s\n", resourceBundle.getString("program-utils-complete-none"));
+            return prefix;
+        }
+        for (int i = 0; i < completions.size(); i++) {
+            System.out.printf("  %d. %s\n", i + 1, completions.get(i));
+        }
+        System.out.printf("%s - \n", resourceBundle.getString("program-utils-complete"));
+        try {
+            int choice = Integer.parseInt(scan.nextLine().trim());
+            if (choice >= 1 && choice <= completions.size()) {
+                return completions.get(choice - 1);
+            }
+        } catch (NumberFormatException nfe) {
+            // Sin elección, se busca el texto introducido
+        }
+        return prefix;
+    }
+
+    /**
+     * Método para preguntar si el listado debe incluir detalles
+     *
+     * @param scan Entrada de datos por teclado
+     * @return Verdadero si se piden los detalles
+     */
+    public static boolean checkDetails(Scanner scan) {
+        System.out.printf("\n  %s\n", resourceBundle.getString("program-utils-details"));
+        return scan.nextLine().equals("1");
+    }
+
     /**
      * Método general para conectar con la base de datos
-     * en el listado de su contenido, con o sin detalles
+     * en el listado de su contenido, página a página: cada página
+     * se pide a partir de la última entrada de la anterior, por lo que
+     * solo se guarda en memoria la página que se muestra
      *
      * @param scan        Entrada de datos por teclado
      * @param currentUser Objeto de usuario con sus datos
      *                    de acceso a la base de datos
      * @param libDAO      Referencia general a la clase de conexión
      *                    a la tabla de datos
+     * @param order       Número del orden del listado, 1 para la ID
+     * @param details     Verdadero para añadir más detalles a las entradas
+     * @param size        Número de entradas por página
+     * @param printer     Descripción de cada entrada a imprimir
      * @param <T>         Clase asociada a la tabla de datos
-     * @return Lista de contenido en la tabla de datos
-     * en objetos de la clase T
      */
-    public static <T> List<T> loadDataList(Scanner scan, User currentUser, LibDAO<T> libDAO) {
-        System.out.printf("\n  %s\n", resourceBundle.getString("program-utils-details"));
-        if (scan.nextLine().equals("1")) {
-            return libDAO.searchDetailDB(currentUser, resourceBundle);
-        } else {
-            return libDAO.searchDB(currentUser, resourceBundle);
+    public static <T> void printPages(Scanner scan, User currentUser, LibDAO<T> libDAO, int order, boolean details,
+                                      int size, Function<T, String> printer) {
+        T last = null;
+        while (true) {
+            List<T> page = libDAO.searchPageDB(currentUser, order, last, size, details, resourceBundle);
+            page.forEach(t -> System.out.println(printer.apply(t)));
+            if (page.size() < size) {
+                return;
+            }
+            last = page.get(page.size() - 1);
+            System.out.printf("  %s\n", resourceBundle.getString("program-utils-page"));
+            if (!scan.nextLine().isEmpty()) {
+                return;
+            }
         }
     }
 